@@ -0,0 +1,66 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * 基于 Java Vector API 的银行家算法向量运算内核类
+ * <p>
+ * 位于可选的源码目录 src-simd，默认构建不编译本类。需要时在编译 src 之后单独编译到同一输出目录：
+ * javac --add-modules jdk.incubator.vector -cp out -d out src-simd/*.java，
+ * 运行时同样需要 --add-modules jdk.incubator.vector；由 VectorKernels 在启动时通过反射加载。
+ *
+ * @author agent
+ * @date 2026-10-19 08:26:55
+ */
+class SimdVectorKernels extends VectorKernels {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED; // 当前 CPU 的最优向量宽度
+
+    @Override
+    boolean lessOrEqual(int[] a, int aOffset, int[] b, int length) {
+        int j = 0;
+        for (int bound = SPECIES.loopBound(length); j < bound; j += SPECIES.length()) {
+            IntVector va = IntVector.fromArray(SPECIES, a, aOffset + j);
+            IntVector vb = IntVector.fromArray(SPECIES, b, j);
+            if (va.compare(VectorOperators.GT, vb).anyTrue()) {
+                return false;
+            }
+        }
+        for (; j < length; j++) { // 处理不足一个向量宽度的尾部
+            if (a[aOffset + j] > b[j]) {
+                return false;
+            }
+        }
+        return true;
+    } // end lessOrEqual()
+
+    @Override
+    void addInto(int[] target, int[] source, int sourceOffset, int length) {
+        int j = 0;
+        for (int bound = SPECIES.loopBound(length); j < bound; j += SPECIES.length()) {
+            IntVector.fromArray(SPECIES, target, j)
+                    .add(IntVector.fromArray(SPECIES, source, sourceOffset + j))
+                    .intoArray(target, j);
+        }
+        for (; j < length; j++) {
+            target[j] += source[sourceOffset + j];
+        }
+    } // end addInto()
+
+    @Override
+    void addScaled(int[] target, int targetOffset, int[] delta, int sign, int length) {
+        int j = 0;
+        for (int bound = SPECIES.loopBound(length); j < bound; j += SPECIES.length()) {
+            IntVector vt = IntVector.fromArray(SPECIES, target, targetOffset + j);
+            IntVector vd = IntVector.fromArray(SPECIES, delta, j);
+            (sign >= 0 ? vt.add(vd) : vt.sub(vd)).intoArray(target, targetOffset + j);
+        }
+        for (; j < length; j++) {
+            target[targetOffset + j] += sign * delta[j];
+        }
+    } // end addScaled()
+
+    @Override
+    String name() {
+        return "simd(" + SPECIES.length() + " x int)";
+    } // end name()
+} // end class SimdVectorKernels
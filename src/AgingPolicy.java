@@ -0,0 +1,93 @@
+/**
+ * HPF 老化与衰减策略类
+ * <p>
+ * 老化：进程在就绪队列中每等待一个时间单位，有效优先数增加 agingRate；
+ * 衰减：进程每运行一个时间片后，优先数按衰减方式降低。
+ * <p>
+ * 有效优先数 = 优先数 + agingRate × (当前时间 - 进入就绪队列时间)，由于所有等待进程的老化增量相同，
+ * 只需按 (优先数 - agingRate × 进入就绪队列时间) 排序即可保持堆序，无需在每个时间单位更新所有进程。
+ *
+ * @author agent
+ * @date 2026-10-19 08:14:22
+ */
+public class AgingPolicy {
+    /**
+     * 衰减方式
+     */
+    public enum DecayMode {
+        NONE, // 不衰减
+        LINEAR, // 线性衰减：优先数 - decayStep
+        HALVING // 折半衰减：优先数 / 2
+    }
+
+    public static final AgingPolicy DEFAULT = new AgingPolicy(0, DecayMode.LINEAR, 1); // 默认策略：不老化，每次运行优先数减1
+
+    private final int agingRate; // 老化速率（每等待一个时间单位增加的优先数）
+    private final DecayMode decayMode; // 衰减方式
+    private final int decayStep; // 线性衰减步长
+
+    public AgingPolicy(int agingRate, DecayMode decayMode, int decayStep) {
+        if (agingRate < 0 || decayStep < 0) {
+            throw new IllegalArgumentException("老化速率和衰减步长必须>=0");
+        }
+        this.agingRate = agingRate;
+        this.decayMode = decayMode;
+        this.decayStep = decayStep;
+    } // end AgingPolicy()
+
+    /**
+     * 计算进程在就绪队列中的排序键（与当前时间无关）
+     *
+     * @param process 进程
+     * @return 排序键，越大越优先
+     */
+    public long agingKey(PCB process) {
+        return (long) process.getPriority() - (long) agingRate * process.getReadyTime();
+    } // end agingKey()
+
+    /**
+     * 计算进程在当前时间的有效优先数
+     *
+     * @param process 进程
+     * @param time    当前时间
+     * @return 有效优先数
+     */
+    public int effectivePriority(PCB process, int time) {
+        long effective = (long) process.getPriority() + (long) agingRate * (time - process.getReadyTime());
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, effective));
+    } // end effectivePriority()
+
+    /**
+     * 计算进程运行一个时间片后衰减的优先数
+     *
+     * @param priority 优先数
+     * @return 衰减后的优先数
+     */
+    public int decay(int priority) {
+        switch (decayMode) {
+            case LINEAR:
+                return priority - decayStep;
+            case HALVING:
+                return priority / 2;
+            default:
+                return priority;
+        }
+    } // end decay()
+
+    public int getAgingRate() {
+        return agingRate;
+    }
+
+    public DecayMode getDecayMode() {
+        return decayMode;
+    }
+
+    public int getDecayStep() {
+        return decayStep;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("老化速率=%d, 衰减方式=%s, 衰减步长=%d", agingRate, decayMode, decayStep);
+    } // end toString()
+} // end class AgingPolicy
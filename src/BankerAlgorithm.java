@@ -1,4 +1,5 @@
 import java.util.*;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * 银行家算法类
@@ -7,43 +8,170 @@ import java.util.*;
  * @date 2024-02-03 16:58:04
  */
 public class BankerAlgorithm {
+    static final int INDEXED_SAFETY_THRESHOLD = 128; // 进程数达到该值时使用按还需量排序的索引安全性检查
+    static final int PARALLEL_SAFETY_THRESHOLD = 1 << 16; // 进程数达到该值时使用按轮并行的安全性检查
+    private static final int PARALLEL_LEAF_SIZE = 2048; // 并行安全性检查中不再拆分的进程数
+    private static final int PARALLEL_MIN_PROGRESS = 8; // 一轮完成的进程少于剩余进程的 1/该值时改用索引安全性检查
+    static final int DEFAULT_SAFETY_CACHE_CAPACITY = 256; // 安全性检查结果缓存的默认容量
+    private static final long HASH_SEED_1 = 0x243F6A8885A308D3L, HASH_SEED_2 = 0x13198A2E03707344L; // 两路状态哈希的种子
+    private static final int HASH_AVAILABLE = 0, HASH_MAX = 1, HASH_ALLOCATION = 2, HASH_PRESENT = 3; // 哈希系数的分类
+
     private int[] available; // 系统可用资源数（剩余资源量）
-    private int[][] max; // 各进程最大需求量
-    private int[][] allocation; // 各进程已占用资源数
-    private int[][] need; // 各进程还需资源数
+    private ResourceMatrix max; // 各进程最大需求量
+    private ResourceMatrix allocation; // 各进程已占用资源数
+    private ResourceMatrix need; // 各进程还需资源数
+
+    private int processCount; // 进程数（含已撤销进程留下的空位，矩阵容量可能更大）
+    private boolean[] removed; // 记录进程是否已撤销
+    private int removedCount; // 已撤销进程数
+    private int[] freeSlots; // 可复用的已撤销进程下标（栈）
+    private int freeCount; // 可复用下标数
 
     private boolean[] finish; // 记录进程完成状态
     private StringBuilder result; // 算法运行结果
     private List<Integer> safeSequence; // 安全序列
+    private SafeSequenceIndex lastSafeSequence; // 最近一次求得并随分配、释放增量维护的安全序列（为 null 时未知）
+    private final PendingRequestQueue pendingRequests = new PendingRequestQueue(); // 等待资源释放后重新检查的请求
+    private RequestGrantListener grantListener; // 等待中的请求被批准时的监听器（可为 null）
+
+    private long stateHash1, stateHash2; // 系统状态的两路加法哈希（Available、Max、Allocation 与进程成员）
+    private boolean stateHashValid; // 状态哈希是否与当前状态一致（整体修改状态后置为 false，使用时重新计算）
+    private int safetyCacheCapacity = DEFAULT_SAFETY_CACHE_CAPACITY; // 安全性检查结果缓存容量（0 表示不缓存）
+    private final LinkedHashMap<Long, SafetyCacheEntry> safetyCache =
+            new LinkedHashMap<>(16, 0.75f, true) { // 按访问顺序淘汰的安全性检查结果缓存（以第一路哈希为键）
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, SafetyCacheEntry> eldest) {
+                    return size() > safetyCacheCapacity;
+                }
+            };
+
+    /**
+     * 安全性检查结果缓存项
+     */
+    private static final class SafetyCacheEntry {
+        final long check; // 第二路哈希（两路都相同才视为同一状态）
+        final int[] order; // 安全序列，不安全时为 null（只读）
+        final boolean[] finish; // 检查结束时各进程的完成状态
+
+        SafetyCacheEntry(long check, int[] order, boolean[] finish) {
+            this.check = check;
+            this.order = order;
+            this.finish = finish;
+        } // end SafetyCacheEntry()
+    } // end class SafetyCacheEntry
+
+    /**
+     * 批量请求的处理顺序
+     */
+    public enum BatchOrder {
+        FIFO, // 按提交顺序处理
+        MAX_GRANTS // 请求总量小的优先处理（贪心地使批准的请求数尽可能多）
+    }
+
+    /**
+     * 试分配运行结果的详细程度
+     */
+    public enum TraceLevel {
+        VERDICT, // 只输出结论
+        SEQUENCE, // 结论与安全序列
+        DELTAS, // 另外输出每一步释放的资源与释放后的可用资源数
+        FULL // 另外输出分配后与每一步之后的完整状态表（O(n²m)，只适合规模较小时在界面中查看）
+    }
 
     public BankerAlgorithm(int[] available, int[][] max, int[][] allocation) {
+        this(available, ResourceMatrix.of(max, available.length), ResourceMatrix.of(allocation, available.length));
+    } // end BankerAlgorithm()
+
+    /**
+     * 直接使用已填充的资源矩阵创建银行家算法器（矩阵不会被复制）
+     * <p>
+     * 传入 SparseResourceMatrix 时 need 矩阵也以稀疏方式存放，安全性检查与请求检查只遍历非零元素。
+     *
+     * @param available  系统可用资源数
+     * @param max        各进程最大需求量
+     * @param allocation 各进程已占用资源数
+     */
+    public BankerAlgorithm(int[] available, ResourceMatrix max, ResourceMatrix allocation) {
+        if (max.columns() != available.length || allocation.columns() != available.length || max.rows() != allocation.rows()) {
+            throw new IllegalArgumentException("可用资源、最大需求量与已占用资源矩阵的规模不一致");
+        }
         this.available = available;
         this.max = max;
         this.allocation = allocation;
-        this.need = new int[max.length][available.length];
-        this.finish = new boolean[max.length];
+        this.finish = new boolean[max.rows()];
+        resetMembership(max.rows());
         calculateNeed();
     } // end BankerAlgorithm()
 
+    /**
+     * 创建写时复制的副本（见 fork()）
+     */
+    private BankerAlgorithm(BankerAlgorithm source) {
+        this.available = source.available.clone();
+        this.max = source.max.fork();
+        this.allocation = source.allocation.fork();
+        this.need = source.need.fork();
+        this.processCount = source.processCount;
+        this.removed = source.removed.clone();
+        this.removedCount = source.removedCount;
+        this.freeSlots = source.freeSlots.clone();
+        this.freeCount = source.freeCount;
+        this.finish = source.finish.clone();
+        this.stateHash1 = source.stateHash1;
+        this.stateHash2 = source.stateHash2;
+        this.stateHashValid = source.stateHashValid;
+        this.safetyCacheCapacity = source.safetyCacheCapacity;
+        this.safetyCache.putAll(source.safetyCache); // 缓存项只读，可以共享
+    } // end BankerAlgorithm()
+
+    /**
+     * 创建独立的副本，用于试探假设的请求序列（例如多个分析会话或线程各自在副本上试分配）
+     * <p>
+     * 资源矩阵按页写时复制：副本与原算法器共享未修改的行页，创建副本不复制 O(nm) 的矩阵，
+     * 之后双方的分配、释放、添加与撤销进程互不影响。副本不继承等待中的请求与监听器。
+     * 创建副本时原算法器不能同时被修改；创建后原算法器与各副本可以分别在不同线程中使用。
+     *
+     * @return 副本
+     */
+    public BankerAlgorithm fork() {
+        return new BankerAlgorithm(this);
+    } // end fork()
+
     /**
      * 计算进程尚需量
      */
     public void calculateNeed() {
-        for (int i = 0; i < max.length; i++) {
-            for (int j = 0; j < available.length; j++) {
-                need[i][j] = max[i][j] - allocation[i][j];
+        need = max.copy(); // 与 max 使用同一种存储方式，再减去 allocation 的非零元素（need 会被修改，不与 max 共享存储）
+        int[] columns = new int[available.length], values = new int[available.length];
+        for (int i = 0; i < processCount; i++) {
+            int count = allocation.rowNonZeros(i, columns, values);
+            for (int k = 0; k < count; k++) {
+                need.set(i, columns[k], need.get(i, columns[k]) - values[k]);
             }
         }
+        invalidateSafetyCache();
     } // end calculateNeed()
 
     /**
-     * 尝试为进程分配资源
+     * 尝试为进程分配资源（输出完整的运行过程）
      *
      * @param processIndex 进程下标
      * @param request      进程请求向量
      * @return 能否进行试分配
      */
     public String tryAllocate(int processIndex, int[] request) {
+        return tryAllocate(processIndex, request, TraceLevel.FULL);
+    } // end tryAllocate()
+
+    /**
+     * 尝试为进程分配资源
+     *
+     * @param processIndex 进程下标
+     * @param request      进程请求向量
+     * @param level        运行结果的详细程度
+     * @return 能否进行试分配
+     */
+    public String tryAllocate(int processIndex, int[] request, TraceLevel level) {
         result = new StringBuilder();
 
         result.append("试分配：").append(processIndex).append(" ==> ").append(Arrays.toString(request)).append("\n");
@@ -51,18 +179,40 @@ public class BankerAlgorithm {
             result.append("无法试分配，请求超出了系统可用资源数或进程的还需资源数。");
             return result.toString();
         }
-        applyRequest(processIndex, request);
 
-        /* 检查安全性 */
-        if (checkSafety()) {
+        /* 检查安全性（一次求解同时得到安全性结论和安全序列）；完整输出时总是重新求解，其余情况先验证上次的安全序列 */
+        int[] order;
+        if (level == TraceLevel.FULL) {
+            applyRequest(processIndex, request);
+            order = findSafeOrder();
+            if (order != null) {
+                rememberSafeOrder(order);
+            } else {
+                rollbackRequest(processIndex, request);
+            }
+        } else {
+            order = grantIfSafe(processIndex, request, true);
+        }
+        if (order != null) {
             result.append("资源试分配成功，系统处于安全状态。\n");
-            result.append(this).append("\n");
-            result.append("-------------------------------".repeat(5)).append("\n");
-            safeSequence = findSafeSequence();
-            result.append("安全序列：").append(safeSequence).append("\n");
+            if (level == TraceLevel.FULL) {
+                result.append(this).append("\n");
+                result.append("-------------------------------".repeat(5)).append("\n");
+                appendSafeSequenceSteps(order);
+            } else if (level == TraceLevel.DELTAS) {
+                forEachSafeStep(order, (step, i, released, work) -> result.append("运行进程：").append(i)
+                        .append("，释放 ").append(Arrays.toString(released))
+                        .append("，Available = ").append(Arrays.toString(work)).append("\n"));
+            }
+            safeSequence = new ArrayList<>(order.length);
+            for (int i : order) {
+                safeSequence.add(i);
+            }
+            if (level != TraceLevel.VERDICT) {
+                result.append("安全序列：").append(safeSequence).append("\n");
+            }
         } else {
             result.append("资源试分配失败，不存在安全序列，若分配会导致死锁。\n");
-            rollbackRequest(processIndex, request);
             result.append("系统已回退至未试分配状态。\n");
         }
 
@@ -73,17 +223,386 @@ public class BankerAlgorithm {
     } // end tryAllocate()
 
     /**
-     * 执行资源分配
+     * 为进程分配资源（不生成运行结果文本）：请求有效且分配后安全则保留分配，否则不做任何修改
      *
      * @param processIndex 进程下标
      * @param request      进程请求向量
+     * @return 是否分配成功
      */
-    private void applyRequest(int processIndex, int[] request) {
+    public boolean allocate(int processIndex, int[] request) {
+        return allocate(processIndex, request, null);
+    } // end allocate()
+
+    /**
+     * 为进程分配资源（不生成运行结果文本）：请求有效且分配后安全则保留分配，否则不做任何修改
+     *
+     * @param processIndex 进程下标
+     * @param request      进程请求向量
+     * @param listener     分配成功时依次接收安全序列各步骤的监听器（可为 null）
+     * @return 是否分配成功
+     */
+    public boolean allocate(int processIndex, int[] request, SafetyStepListener listener) {
+        if (!checkRequestValid(processIndex, request)) {
+            return false;
+        }
+        int[] order = grantIfSafe(processIndex, request, listener != null);
+        if (order == null) {
+            return false;
+        }
+        if (listener != null) {
+            forEachSafeStep(order, listener);
+        }
+        return true;
+    } // end allocate()
+
+    /**
+     * 为进程请求资源，暂时不能安全分配时加入等待队列，之后有资源释放时自动重新检查，批准时通知监听器
+     *
+     * @param processIndex 进程下标
+     * @param request      进程请求向量
+     * @return 是否立即分配成功（false 表示已加入等待队列）
+     * @throws IllegalArgumentException 进程不存在、请求向量长度不正确、包含负数或超过进程还需资源数（永远无法满足）
+     */
+    public boolean allocateOrWait(int processIndex, int[] request) {
+        if (!checkRequestSatisfiable(processIndex, request)) {
+            throw new IllegalArgumentException("请求无效或超出了进程的还需资源数");
+        }
+        if (checkRequestValid(processIndex, request) && grantIfSafe(processIndex, request, false) != null) {
+            return true;
+        }
+        pendingRequests.add(processIndex, request.clone(), available);
+        return false;
+    } // end allocateOrWait()
+
+    /**
+     * 重新检查全部等待中的请求（整体修改系统状态后调用；释放资源与撤销进程时会自动重新检查受影响的请求）
+     * <p>
+     * 进程已不存在的请求被丢弃；暂时超过进程还需资源数的请求继续等待（进程释放资源后还需资源数会增加）。
+     */
+    public void retryPendingRequests() {
+        retryWaiters(pendingRequests.drainAll());
+    } // end retryPendingRequests()
+
+    /**
+     * 取消进程的全部等待中的请求
+     *
+     * @param processIndex 进程下标
+     * @return 取消的请求数
+     */
+    public int cancelPendingRequests(int processIndex) {
+        return pendingRequests.cancel(processIndex);
+    } // end cancelPendingRequests()
+
+    public int getPendingRequestCount() {
+        return pendingRequests.size();
+    }
+
+    public void setGrantListener(RequestGrantListener grantListener) {
+        this.grantListener = grantListener;
+    }
+
+    /**
+     * 资源释放后重新检查可能因此得到满足的等待中的请求
+     *
+     * @param released 释放的资源
+     */
+    private void wakePendingRequests(int[] released) {
+        if (pendingRequests.size() > 0) {
+            retryWaiters(pendingRequests.wake(released, available));
+        }
+    } // end wakePendingRequests()
+
+    /**
+     * 按提交顺序重新检查取出的请求：批准的通知监听器，仍不能批准的放回等待队列
+     */
+    private void retryWaiters(List<PendingRequestQueue.Waiter> waiters) {
+        for (PendingRequestQueue.Waiter waiter : waiters) {
+            int processIndex = waiter.processIndex;
+            if (processIndex >= processCount || removed[processIndex] || waiter.request.length != available.length) {
+                pendingRequests.retire(); // 状态被整体替换后进程已不存在
+            } else if (checkRequestValid(processIndex, waiter.request)
+                    && grantIfSafe(processIndex, waiter.request, false) != null) {
+                pendingRequests.retire();
+                if (grantListener != null) {
+                    grantListener.onGrant(processIndex, waiter.request);
+                }
+            } else {
+                pendingRequests.park(waiter, available);
+            }
+        }
+    } // end retryWaiters()
+
+    /**
+     * 批准请求（请求已验证有效）：先只验证上次安全序列中受影响进程之前的部分，失败时才重新完整求解安全序列
+     *
+     * @param processIndex 进程下标
+     * @param request      进程请求向量
+     * @param needOrder    是否需要返回安全序列（沿用增量维护的安全序列时，取出序列需要 O(n)）
+     * @return 批准后的安全序列（needOrder 为 false 且沿用了增量维护的安全序列时为空数组），
+     * 不安全时返回 null（不做任何修改）
+     */
+    private int[] grantIfSafe(int processIndex, int[] request, boolean needOrder) {
+        if (lastSafeSequence != null && lastSafeSequence.canGrant(processIndex, request)) {
+            applyRequest(processIndex, request);
+            lastSafeSequence.grant(processIndex, request);
+            return needOrder ? lastSafeSequence.order() : new int[0];
+        }
+
+        applyRequest(processIndex, request);
+        int[] order = findSafeOrder();
+        if (order == null) {
+            rollbackRequest(processIndex, request); // 原状态未变，上次的安全序列仍然有效
+            return null;
+        }
+        rememberSafeOrder(order); // 稀疏存储时不建立索引，lastSafeSequence 仍为 null
+        return order;
+    } // end grantIfSafe()
+
+    /**
+     * 记录当前状态的安全序列，之后随分配、释放增量维护
+     */
+    private void rememberSafeOrder(int[] order) {
+        if (need.isSparse()) {
+            return; // 索引的余量是稠密的 n×m 数组，稀疏存储时直接使用只遍历非零元素的完整检查
+        }
+        lastSafeSequence = new SafeSequenceIndex(order, available, need, allocation, processCount);
+    } // end rememberSafeOrder()
+
+    /**
+     * 进程释放资源
+     *
+     * @param processIndex 进程下标
+     * @param release      释放向量（不能超过进程已占用资源数）
+     * @return 是否释放成功
+     */
+    public boolean release(int processIndex, int[] release) {
+        if (processIndex < 0 || processIndex >= processCount || removed[processIndex] || release.length != available.length) {
+            return false;
+        }
         for (int i = 0; i < available.length; i++) {
-            available[i] -= request[i];
-            allocation[processIndex][i] += request[i];
-            need[processIndex][i] -= request[i];
+            if (release[i] < 0 || release[i] > allocation.get(processIndex, i)) {
+                return false;
+            }
+        }
+        rollbackRequest(processIndex, release); // 释放与回滚分配对系统状态的修改相同
+        if (lastSafeSequence != null) {
+            lastSafeSequence.release(processIndex, release); // 释放后原安全序列仍然有效
+        }
+        wakePendingRequests(release);
+        return true;
+    } // end release()
+
+    /**
+     * 添加进程（优先复用已撤销进程的下标，矩阵容量不足时按倍数扩容）
+     *
+     * @param maxDemand 进程最大需求量
+     * @return 新进程下标
+     */
+    public int addProcess(int[] maxDemand) {
+        if (maxDemand.length != available.length) {
+            throw new IllegalArgumentException("最大需求量向量长度应为 " + available.length);
+        }
+        for (int d : maxDemand) {
+            if (d < 0) {
+                throw new IllegalArgumentException("最大需求量必须>=0");
+            }
+        }
+
+        int processIndex;
+        if (freeCount > 0) {
+            processIndex = freeSlots[--freeCount];
+            removed[processIndex] = false;
+            removedCount--;
+        } else {
+            if (processCount == removed.length) {
+                growCapacity();
+            }
+            processIndex = processCount++;
+            max.addRow();
+            allocation.addRow();
+            need.addRow();
+        }
+
+        max.setRow(processIndex, maxDemand);
+        need.setRow(processIndex, maxDemand); // 新进程未占用资源，还需量即最大需求量
+        updateStateHash(HASH_PRESENT, processIndex, null, 1);
+        updateStateHash(HASH_MAX, processIndex, maxDemand, 1);
+        if (lastSafeSequence != null && !lastSafeSequence.append(processIndex, maxDemand)) {
+            lastSafeSequence = null; // 资源总量不足以满足新进程的最大需求，系统已不安全
+        }
+        return processIndex;
+    } // end addProcess()
+
+    /**
+     * 撤销进程：归还其已占用的全部资源，其下标留待后续添加的进程复用
+     *
+     * @param processIndex 进程下标
+     * @return 是否撤销成功
+     */
+    public boolean removeProcess(int processIndex) {
+        if (processIndex < 0 || processIndex >= processCount || removed[processIndex]) {
+            return false;
+        }
+
+        int[] allocated = allocation.row(processIndex);
+        updateStateHash(HASH_PRESENT, processIndex, null, -1);
+        updateStateHash(HASH_MAX, processIndex, max.row(processIndex), -1);
+        updateStateHash(HASH_ALLOCATION, processIndex, allocated, -1);
+        updateStateHash(HASH_AVAILABLE, 0, allocated, 1);
+        if (lastSafeSequence != null) {
+            lastSafeSequence.remove(processIndex, allocated);
+            if (lastSafeSequence.isFragmented()) {
+                lastSafeSequence = null; // 空位过多，下次完整求解时重建
+            }
+        }
+        allocation.addRowTo(processIndex, available);
+        allocation.fillRow(processIndex, 0);
+        max.fillRow(processIndex, 0);
+        need.fillRow(processIndex, 0);
+        removed[processIndex] = true;
+        removedCount++;
+        freeSlots[freeCount++] = processIndex;
+        pendingRequests.cancel(processIndex);
+        wakePendingRequests(allocated);
+        return true;
+    } // end removeProcess()
+
+    /**
+     * 进程成员信息扩容（资源矩阵由 ResourceMatrix 自行扩容）
+     */
+    private void growCapacity() {
+        int capacity = Math.max(4, removed.length * 2);
+        removed = Arrays.copyOf(removed, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    } // end growCapacity()
+
+    /**
+     * 重置进程成员信息（矩阵被整体替换时调用）
+     *
+     * @param count 进程数
+     */
+    private void resetMembership(int count) {
+        processCount = count;
+        removed = new boolean[count];
+        removedCount = 0;
+        freeSlots = new int[count];
+        freeCount = 0;
+        invalidateSafetyCache();
+    } // end resetMembership()
+
+    /**
+     * 进程是否已撤销
+     *
+     * @param processIndex 进程下标
+     * @return 是否已撤销
+     */
+    public boolean isRemoved(int processIndex) {
+        return removed[processIndex];
+    } // end isRemoved()
+
+    public int getProcessCount() {
+        return processCount;
+    }
+
+    /**
+     * 批量处理资源请求：按指定顺序逐个试分配，安全则批准并保留分配，否则拒绝
+     * <p>
+     * 整批请求共享同一个安全序列：批准进程 i 的请求后，安全序列中 i 之后各步的工作向量不变，
+     * 只需验证 i 及其之前的部分，验证失败时才重新求安全序列。
+     *
+     * @param requests 资源请求
+     * @param order    处理顺序
+     * @return 各请求是否被批准（与 requests 顺序一致）
+     */
+    public boolean[] tryAllocateBatch(List<ResourceRequest> requests, BatchOrder order) {
+        boolean[] granted = new boolean[requests.size()];
+        int[] safeOrder = lastSafeSequence != null ? lastSafeSequence.order() : findSafeOrder();
+        if (safeOrder == null) {
+            return granted; // 当前状态已不安全，任何分配都不能使其恢复安全
+        }
+        lastSafeSequence = null; // 批处理期间由 safeOrder 维护，结束后重建
+        int[] position = positionsOf(safeOrder, processCount);
+
+        Integer[] indices = new Integer[requests.size()];
+        for (int k = 0; k < indices.length; k++) {
+            indices[k] = k;
+        }
+        if (order == BatchOrder.MAX_GRANTS) {
+            Arrays.sort(indices, Comparator.comparingLong(k -> requests.get(k).total())); // 稳定排序，总量相同时按提交顺序
         }
+
+        for (int k : indices) {
+            int processIndex = requests.get(k).getProcessIndex();
+            int[] request = requests.get(k).getRequest();
+            if (!checkRequestValid(processIndex, request)) {
+                continue;
+            }
+
+            applyRequest(processIndex, request);
+            if (verifySafePrefix(safeOrder, position[processIndex])) {
+                granted[k] = true;
+                continue;
+            }
+            int[] newOrder = findSafeOrder();
+            if (newOrder != null) {
+                safeOrder = newOrder;
+                position = positionsOf(newOrder, processCount);
+                granted[k] = true;
+            } else {
+                rollbackRequest(processIndex, request);
+            }
+        }
+
+        rememberSafeOrder(safeOrder);
+        return granted;
+    } // end tryAllocateBatch()
+
+    /**
+     * 验证安全序列的前 end+1 个进程在当前状态下能否依次运行完成
+     *
+     * @param order 安全序列
+     * @param end   验证到的位置（包含）
+     * @return 能否依次运行完成
+     */
+    private boolean verifySafePrefix(int[] order, int end) {
+        int[] work = Arrays.copyOf(available, available.length);
+        for (int k = 0; k <= end; k++) {
+            int i = order[k];
+            if (!checkProcessCanFinish(i, work)) {
+                return false;
+            }
+            allocation.addRowTo(i, work);
+        }
+        return true;
+    } // end verifySafePrefix()
+
+    /**
+     * 求各进程在安全序列中的位置
+     *
+     * @param order 安全序列
+     * @param n     进程数
+     * @return 各进程的位置（不在序列中的进程为0）
+     */
+    private static int[] positionsOf(int[] order, int n) {
+        int[] position = new int[n];
+        for (int k = 0; k < order.length; k++) {
+            position[order[k]] = k;
+        }
+        return position;
+    } // end positionsOf()
+
+    /**
+     * 执行资源分配
+     *
+     * @param processIndex 进程下标
+     * @param request      进程请求向量
+     */
+    private void applyRequest(int processIndex, int[] request) {
+        VectorKernels.INSTANCE.addScaled(available, 0, request, -1, available.length);
+        allocation.addToRow(processIndex, request, 1);
+        need.addToRow(processIndex, request, -1);
+        updateStateHash(HASH_AVAILABLE, 0, request, -1);
+        updateStateHash(HASH_ALLOCATION, processIndex, request, 1);
     } // end applyRequest()
 
     /**
@@ -93,12 +612,27 @@ public class BankerAlgorithm {
      * @param request      进程请求向量
      */
     private void rollbackRequest(int processIndex, int[] request) {
+        VectorKernels.INSTANCE.addScaled(available, 0, request, 1, available.length);
+        allocation.addToRow(processIndex, request, -1);
+        need.addToRow(processIndex, request, 1);
+        updateStateHash(HASH_AVAILABLE, 0, request, 1);
+        updateStateHash(HASH_ALLOCATION, processIndex, request, -1);
+    } // end rollbackRequest()
+
+    /**
+     * 检查请求是否可能被满足（进程存在且请求不超过其还需资源数，不考虑可用资源数）
+     */
+    private boolean checkRequestSatisfiable(int processIndex, int[] request) {
+        if (processIndex < 0 || processIndex >= processCount || removed[processIndex] || request.length != available.length) {
+            return false;
+        }
         for (int i = 0; i < available.length; i++) {
-            available[i] += request[i];
-            allocation[processIndex][i] -= request[i];
-            need[processIndex][i] += request[i];
+            if (request[i] < 0 || request[i] > need.get(processIndex, i)) {
+                return false;
+            }
         }
-    } // end rollbackRequest()
+        return true;
+    } // end checkRequestSatisfiable()
 
     /**
      * 检查请求是否有效
@@ -108,32 +642,339 @@ public class BankerAlgorithm {
      * @return 请求是否有效
      */
     private boolean checkRequestValid(int processIndex, int[] request) {
+        if (processIndex < 0 || processIndex >= processCount || removed[processIndex] || request.length != available.length) {
+            return false;
+        }
         for (int i = 0; i < available.length; i++) {
-            if (request[i] > need[processIndex][i] || request[i] > available[i]) {
+            if (request[i] < 0 || request[i] > need.get(processIndex, i) || request[i] > available[i]) {
                 return false;
             }
         }
         return true;
     } // end checkRequestValid()
 
+    /**
+     * 求进程对某种资源当前能安全请求的最大数量（不修改系统状态）
+     *
+     * @param processIndex 进程下标
+     * @param resource     资源下标
+     * @return 最大安全请求量，当前状态不安全时为0
+     */
+    public int largestSafeRequest(int processIndex, int resource) {
+        checkQueryArguments(processIndex);
+        if (resource < 0 || resource >= available.length) {
+            throw new IllegalArgumentException("资源下标超出范围：" + resource);
+        }
+        SafeRequestBounds bounds = safeRequestBounds();
+        if (bounds == null) {
+            return 0;
+        }
+        int[] request = new int[available.length];
+        return largestSafeAmount(processIndex, resource, request, bounds.slack[processIndex][resource], bounds);
+    } // end largestSafeRequest()
+
+    /**
+     * 求进程当前能安全请求的一个极大请求向量（不修改系统状态）
+     * <p>
+     * 按资源顺序逐个取最大安全量：请求越大越难保持安全，因此之后提高其他分量不会使先确定的分量还能再增大，
+     * 得到的向量不能在任何一个分量上继续增大（Pareto 极大），但不一定是总量最大的向量。
+     *
+     * @param processIndex 进程下标
+     * @return 极大安全请求向量，当前状态不安全时为全0向量
+     */
+    public int[] largestSafeRequest(int processIndex) {
+        checkQueryArguments(processIndex);
+        return largestSafeRequest(processIndex, safeRequestBounds());
+    } // end largestSafeRequest()
+
+    /**
+     * 求各进程当前能安全请求的极大请求向量（共用同一次安全序列求解与同一个还需量索引，不修改系统状态）
+     *
+     * @return 各进程的极大安全请求向量（已撤销进程为全0向量）
+     */
+    public int[][] largestSafeRequests() {
+        SafeRequestBounds bounds = safeRequestBounds();
+        int[][] requests = new int[processCount][];
+        for (int i = 0; i < processCount; i++) {
+            requests[i] = removed[i] ? new int[available.length] : largestSafeRequest(i, bounds);
+        }
+        return requests;
+    } // end largestSafeRequests()
+
+    /**
+     * 由安全序列得到的请求量下界，以及二分查找各次试探共用的还需量索引
+     */
+    private static final class SafeRequestBounds {
+        final int[][] slack; // slack[i][j]：进程 i 请求不超过该值的资源 j 时，原安全序列仍然适用
+        final NeedIndex needIndex; // 当前状态的还需量索引（试探时只虚拟修改请求进程，索引不变）
+
+        SafeRequestBounds(int[][] slack, NeedIndex needIndex) {
+            this.slack = slack;
+            this.needIndex = needIndex;
+        } // end SafeRequestBounds()
+    } // end class SafeRequestBounds
+
+    /**
+     * 由当前安全序列求各进程的请求量下界
+     * <p>
+     * 设安全序列第 k 步开始时的工作向量为 W_k。进程 i 位于第 p 步时，批准请求 q 后其之后各步不受影响，
+     * 只需 q 不超过其之前每一步的余量 W_k - Need_k 以及可用资源数 W_0，
+     * 因此对序列求一遍前缀最小值即可得到所有进程、所有资源的下界（再与还需资源数取最小值），O(nm)。
+     *
+     * @return 请求量下界，当前状态不安全时返回 null
+     */
+    private SafeRequestBounds safeRequestBounds() {
+        int[] order = findSafeOrder();
+        if (order == null) {
+            return null;
+        }
+        int m = available.length;
+        int[][] slack = new int[processCount][];
+        int[] work = Arrays.copyOf(available, m);
+        int[] prefixSlack = Arrays.copyOf(available, m); // 当前位置之前各步余量的最小值
+        for (int i : order) {
+            slack[i] = new int[m];
+            for (int j = 0; j < m; j++) {
+                slack[i][j] = Math.min(prefixSlack[j], need.get(i, j));
+                prefixSlack[j] = Math.min(prefixSlack[j], work[j] - need.get(i, j));
+            }
+            allocation.addRowTo(i, work);
+        }
+        for (int i = 0; i < processCount; i++) {
+            if (slack[i] == null) {
+                slack[i] = new int[m]; // 已撤销进程
+            }
+        }
+        return new SafeRequestBounds(slack, new NeedIndex(need, processCount, m));
+    } // end safeRequestBounds()
+
+    /**
+     * 逐个资源求极大安全请求向量
+     */
+    private int[] largestSafeRequest(int processIndex, SafeRequestBounds bounds) {
+        int[] request = new int[available.length];
+        if (bounds == null) {
+            return request;
+        }
+        for (int j = 0; j < available.length; j++) {
+            int lower = withinBounds(request, bounds.slack[processIndex], j) ? bounds.slack[processIndex][j] : 0;
+            request[j] = largestSafeAmount(processIndex, j, request, lower, bounds);
+        }
+        return request;
+    } // end largestSafeRequest()
+
+    /**
+     * 在其他分量固定时二分查找资源 resource 的最大安全请求量（安全性对请求量单调）
+     *
+     * @param processIndex 进程下标
+     * @param resource     资源下标
+     * @param request      请求向量（resource 分量会被修改为结果）
+     * @param lower        已知安全的请求量
+     * @param bounds       请求量下界与共用的还需量索引
+     * @return 最大安全请求量
+     */
+    private int largestSafeAmount(int processIndex, int resource, int[] request, int lower, SafeRequestBounds bounds) {
+        int upper = Math.min(need.get(processIndex, resource), available[resource]);
+        while (lower < upper) {
+            int mid = lower + (upper - lower + 1) / 2;
+            request[resource] = mid;
+            if (isSafeWithRequest(processIndex, request, bounds.needIndex)) {
+                lower = mid;
+            } else {
+                upper = mid - 1;
+            }
+        }
+        request[resource] = lower;
+        return lower;
+    } // end largestSafeAmount()
+
+    /**
+     * 判断批准请求后系统是否安全（在工作向量上虚拟地批准，不修改系统状态与索引）
+     * <p>
+     * 在共用的还需量索引上放行其他进程，请求进程的还需量减去请求量后单独记录阻塞的资源种类数。
+     * 当前状态是安全的，因此请求进程一旦能运行完成，其余进程按原安全序列必然都能完成
+     * （此时的工作向量不小于原序列中对应步骤的工作向量），可以立即返回；最坏 O(z)。
+     *
+     * @param processIndex 进程下标
+     * @param request      请求向量（不超过还需资源数与可用资源数）
+     * @param needIndex    当前状态的还需量索引
+     * @return 是否安全
+     */
+    private boolean isSafeWithRequest(int processIndex, int[] request, NeedIndex needIndex) {
+        int n = processCount, m = available.length;
+        int[] work = Arrays.copyOf(available, m);
+        VectorKernels.INSTANCE.addScaled(work, 0, request, -1, m);
+        int[] remainingNeed = need.row(processIndex); // 批准后的还需资源数
+        VectorKernels.INSTANCE.addScaled(remainingNeed, 0, request, -1, m);
+        int deficit = 0; // 批准后的还需资源数超过工作向量的资源种类数
+        for (int j = 0; j < m; j++) {
+            if (remainingNeed[j] > work[j]) {
+                deficit++;
+            }
+        }
+        if (deficit == 0) {
+            return true;
+        }
+
+        int[] blocked = needIndex.nonZeroCount.clone(); // 阻塞计数
+        blocked[processIndex] = Integer.MAX_VALUE; // 请求进程不由索引放行
+        int[] ready = new int[n]; // 可运行完成的进程（先进先出）
+        int head = 0, tail = 0;
+        for (int i = 0; i < n; i++) {
+            if (blocked[i] == 0) {
+                ready[tail++] = i;
+            }
+        }
+        int[] cursor = new int[m]; // 每类资源的索引指针
+        for (int j = 0; j < m; j++) {
+            tail = advanceIndex(j, needIndex.entries[j], cursor, blocked, work, ready, tail);
+        }
+
+        int[] columns = new int[m], values = new int[m]; // 一行的非零元素
+        while (head < tail) {
+            int count = allocation.rowNonZeros(ready[head++], columns, values);
+            for (int k = 0; k < count; k++) {
+                int j = columns[k];
+                if (work[j] < remainingNeed[j] && work[j] + values[k] >= remainingNeed[j] && --deficit == 0) {
+                    return true;
+                }
+                work[j] += values[k];
+                tail = advanceIndex(j, needIndex.entries[j], cursor, blocked, work, ready, tail);
+            }
+        }
+        return false;
+    } // end isSafeWithRequest()
+
+    /**
+     * 除 index 外各分量是否都不超过下界（此时 index 分量取下界的请求仍在原安全序列的适用范围内）
+     */
+    private static boolean withinBounds(int[] request, int[] bound, int index) {
+        for (int j = 0; j < request.length; j++) {
+            if (j != index && request[j] > bound[j]) {
+                return false;
+            }
+        }
+        return true;
+    } // end withinBounds()
+
+    private void checkQueryArguments(int processIndex) {
+        if (processIndex < 0 || processIndex >= processCount || removed[processIndex]) {
+            throw new IllegalArgumentException("进程下标不正确：" + processIndex);
+        }
+    } // end checkQueryArguments()
+
+    /**
+     * 死锁检测：根据各进程当前正在等待的请求判断哪些进程已处于死锁（适用于未经银行家算法批准就分配了资源的状态）
+     *
+     * @param request 各进程当前请求的资源数
+     * @return 处于死锁的进程下标（升序），不存在死锁时为空
+     */
+    public List<Integer> detectDeadlock(int[][] request) {
+        if (request.length != processCount) {
+            throw new IllegalArgumentException("请求矩阵行数应为 " + processCount + "，实际为 " + request.length);
+        }
+        ResourceMatrix requestMatrix = new DenseResourceMatrix(processCount, available.length);
+        for (int i = 0; i < request.length; i++) {
+            requestMatrix.setRow(i, request[i]);
+        }
+        return new DeadlockDetector(available, allocation, requestMatrix).detect(); // 已撤销进程不占用资源，不会被判为死锁
+    } // end detectDeadlock()
+
     /**
      * 检查系统是否处于安全状态
      *
      * @return 系统是否处于安全状态
      */
     public boolean checkSafety() {
+        if (lastSafeSequence != null) {
+            finish = new boolean[processCount]; // 存在仍然有效的安全序列，所有进程都能运行完成
+            Arrays.fill(finish, true);
+            return true;
+        }
+        int[] order = findSafeOrder();
+        if (order != null) {
+            rememberSafeOrder(order);
+        }
+        return order != null;
+    } // end checkSafety()
+
+    /**
+     * 求安全序列（只使用工作向量副本，不修改系统状态）
+     *
+     * @return 安全序列，不存在时返回 null
+     */
+    private int[] findSafeOrder() {
+        SafetyCacheEntry cached = lookupSafetyCache();
+        if (cached != null) {
+            finish = cached.finish.clone();
+            return cached.order;
+        }
+        int[] order = computeSafeOrder();
+        if (safetyCacheCapacity > 0) {
+            safetyCache.put(stateHash1, new SafetyCacheEntry(stateHash2, order, finish.clone()));
+        }
+        return order;
+    } // end findSafeOrder()
+
+    /**
+     * 查找当前状态的安全性检查结果缓存
+     *
+     * @return 缓存项，未命中时返回 null
+     */
+    private SafetyCacheEntry lookupSafetyCache() {
+        if (safetyCacheCapacity <= 0) {
+            return null;
+        }
+        if (!stateHashValid) {
+            recomputeStateHash();
+        }
+        SafetyCacheEntry entry = safetyCache.get(stateHash1);
+        return entry != null && entry.check == stateHash2 ? entry : null;
+    } // end lookupSafetyCache()
+
+    /**
+     * 求安全序列（不使用缓存）
+     *
+     * @return 安全序列，不存在时返回 null
+     */
+    private int[] computeSafeOrder() {
         int[] work = Arrays.copyOf(available, available.length);
-        finish = new boolean[max.length];
-        Arrays.fill(finish, false);
+        int[] order = processCount >= PARALLEL_SAFETY_THRESHOLD ? findSafeOrderParallel(work)
+                : processCount >= INDEXED_SAFETY_THRESHOLD ? findSafeOrderIndexed(work) : findSafeOrderScan(work);
+        if (order == null || removedCount == 0) {
+            return order;
+        }
+
+        /* 已撤销进程的资源行全为0，总能运行完成，从安全序列中去除 */
+        int[] activeOrder = new int[order.length - removedCount];
+        int count = 0;
+        for (int i : order) {
+            if (!removed[i]) {
+                activeOrder[count++] = i;
+            }
+        }
+        return activeOrder;
+    } // end computeSafeOrder()
+
+    /**
+     * 逐轮扫描求安全序列
+     *
+     * @param work 资源工作向量（会被修改）
+     * @return 安全序列，不存在时返回 null
+     */
+    private int[] findSafeOrderScan(int[] work) {
+        int n = processCount;
+        int[] sequence = new int[n];
+        int count = 0;
+        finish = new boolean[n];
 
         while (true) {
             boolean foundProcess = false;
-            for (int i = 0; i < max.length; i++) {
+            for (int i = 0; i < n; i++) {
                 if (!finish[i] && checkProcessCanFinish(i, work)) {
-                    for (int j = 0; j < available.length; j++) {
-                        work[j] += allocation[i][j];
-                    }
+                    allocation.addRowTo(i, work);
                     finish[i] = true;
+                    sequence[count++] = i;
                     foundProcess = true;
                 }
             }
@@ -142,13 +983,202 @@ public class BankerAlgorithm {
             }
         }
 
-        for (boolean b : finish) {
-            if (!b) {
-                return false;
+        return count == n ? sequence : null;
+    } // end findSafeOrderScan()
+
+    /**
+     * 按轮并行求安全序列
+     * <p>
+     * 每一轮在 ForkJoin 线程池中并行找出当前 work 下所有能完成的进程，并以归约求出它们的已占用资源之和，
+     * 一轮结束后再统一累加到 work。同一轮的进程按下标顺序排入安全序列：每个进程的还需资源数不超过本轮开始时的 work，
+     * 因此该序列合法；能完成的进程集合只会随 work 增大而扩大，因此结论与逐轮扫描相同。
+     * <p>
+     * 每轮的代价与剩余进程数成正比，安全序列呈链状（每轮只完成少数进程）时总代价退化为 O(n²·m/P)。
+     * 因此一轮完成的进程少于剩余进程的 1/PARALLEL_MIN_PROGRESS 时，改用 O(z·log n) 的索引检查重新求解；
+     * 此前各轮的剩余进程数按几何级数减少，总代价不超过 O(n·m·PARALLEL_MIN_PROGRESS / P)。
+     *
+     * @param work 资源工作向量（会被修改）
+     * @return 安全序列，不存在时返回 null
+     */
+    private int[] findSafeOrderParallel(int[] work) {
+        int n = processCount;
+        int[] sequence = new int[n];
+        int count = 0;
+        finish = new boolean[n];
+
+        int[] candidates = new int[n]; // 尚未完成的进程
+        for (int i = 0; i < n; i++) {
+            candidates[i] = i;
+        }
+        int candidateCount = n;
+
+        while (candidateCount > 0) {
+            int[] released = new SafetyRoundTask(candidates, 0, candidateCount, work).invoke();
+            int remaining = 0;
+            for (int k = 0; k < candidateCount; k++) {
+                int i = candidates[k];
+                if (finish[i]) {
+                    sequence[count++] = i;
+                } else {
+                    candidates[remaining++] = i;
+                }
+            }
+            if (remaining == candidateCount) {
+                break; // 本轮没有进程能完成
             }
+            if ((candidateCount - remaining) * (long) PARALLEL_MIN_PROGRESS < candidateCount) {
+                return findSafeOrderIndexed(Arrays.copyOf(available, available.length)); // 进展过慢，改用索引检查
+            }
+            for (int j = 0; j < work.length; j++) {
+                work[j] += released[j];
+            }
+            candidateCount = remaining;
+        }
+
+        return count == n ? sequence : null;
+    } // end findSafeOrderParallel()
+
+    /**
+     * 并行安全性检查的一轮任务：标记区间内能完成的进程，返回它们的已占用资源之和
+     */
+    private final class SafetyRoundTask extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] candidates; // 尚未完成的进程
+        private final int from, to; // 候选区间 [from, to)
+        private final int[] work; // 本轮开始时的资源工作向量（只读）
+
+        SafetyRoundTask(int[] candidates, int from, int to, int[] work) {
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+            this.work = work;
+        } // end SafetyRoundTask()
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= PARALLEL_LEAF_SIZE) {
+                int[] released = new int[work.length];
+                for (int k = from; k < to; k++) {
+                    int i = candidates[k];
+                    if (checkProcessCanFinish(i, work)) {
+                        finish[i] = true; // 各任务的下标互不重叠
+                        allocation.addRowTo(i, released);
+                    }
+                }
+                return released;
+            }
+
+            int mid = (from + to) >>> 1;
+            SafetyRoundTask left = new SafetyRoundTask(candidates, from, mid, work);
+            left.fork();
+            int[] released = new SafetyRoundTask(candidates, mid, to, work).compute();
+            int[] leftReleased = left.join();
+            for (int j = 0; j < released.length; j++) {
+                released[j] += leftReleased[j];
+            }
+            return released;
+        } // end compute()
+    } // end class SafetyRoundTask
+
+    /**
+     * 基于每类资源还需量有序索引的安全性检查
+     * <p>
+     * 对每类资源，将还需量不为0的进程按该资源的还需量升序排列，并为每个进程记录仍有多少类资源的还需量大于工作向量（阻塞计数）。
+     * 工作向量只增不减，因此每类资源的索引指针只会前移；进程的阻塞计数降为0时即可运行完成，每个进程只被放行一次。
+     * 还需量为0的资源不会阻塞进程，不进入索引，因此时间复杂度为 O(z·log n)（排序），放行过程为 O(z)，
+     * z 为 need 与 allocation 的非零元素个数（稠密矩阵时为 n·m）。
+     *
+     * @param work 资源工作向量（会被修改）
+     * @return 安全序列，不存在时返回 null
+     */
+    private int[] findSafeOrderIndexed(int[] work) {
+        int n = processCount, m = available.length;
+        NeedIndex needIndex = new NeedIndex(need, n, m);
+        int[] blocked = needIndex.nonZeroCount.clone(); // 阻塞计数
+        int[] ready = new int[n]; // 可运行完成的进程（先进先出）
+        int head = 0, tail = 0;
+        finish = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            if (blocked[i] == 0) {
+                ready[tail++] = i;
+            }
+        }
+        int[] cursor = new int[m]; // 每类资源的索引指针
+        for (int j = 0; j < m; j++) {
+            tail = advanceIndex(j, needIndex.entries[j], cursor, blocked, work, ready, tail);
         }
-        return true;
-    } // end checkSafety()
+
+        /* 依次放行可运行完成的进程，只推进其已占用资源所对应的索引 */
+        int[] sequence = new int[n];
+        int[] columns = new int[m], values = new int[m]; // 一行的非零元素
+        while (head < tail) {
+            int i = ready[head];
+            sequence[head++] = i;
+            finish[i] = true;
+            int count = allocation.rowNonZeros(i, columns, values);
+            for (int k = 0; k < count; k++) {
+                int j = columns[k];
+                work[j] += values[k];
+                tail = advanceIndex(j, needIndex.entries[j], cursor, blocked, work, ready, tail);
+            }
+        }
+
+        return head == n ? sequence : null;
+    } // end findSafeOrderIndexed()
+
+    /**
+     * 每类资源按还需量升序排列的进程索引（建立后只读，可供多次安全性检查共用）
+     */
+    private static final class NeedIndex {
+        final long[][] entries; // 每类资源按还需量升序排列的 (还需量, 进程下标)，打包为 long 排序以避免装箱
+        final int[] nonZeroCount; // 各进程还需量不为0的资源种类数（初始阻塞计数）
+
+        NeedIndex(ResourceMatrix need, int n, int m) {
+            int[] columns = new int[m], values = new int[m]; // 一行的非零元素
+            int[] size = new int[m];
+            nonZeroCount = new int[n];
+            for (int i = 0; i < n; i++) {
+                int count = need.rowNonZeros(i, columns, values);
+                for (int k = 0; k < count; k++) {
+                    size[columns[k]]++;
+                }
+                nonZeroCount[i] = count;
+            }
+            entries = new long[m][];
+            for (int j = 0; j < m; j++) {
+                entries[j] = new long[size[j]];
+            }
+            Arrays.fill(size, 0);
+            for (int i = 0; i < n; i++) {
+                int count = need.rowNonZeros(i, columns, values);
+                for (int k = 0; k < count; k++) {
+                    entries[columns[k]][size[columns[k]]++] = ((long) values[k] << 32) | i;
+                }
+            }
+            for (long[] column : entries) {
+                Arrays.sort(column);
+            }
+        } // end NeedIndex()
+    } // end class NeedIndex
+
+    /**
+     * 推进第 j 类资源的索引指针，放行阻塞计数降为0的进程
+     *
+     * @return 放行后可运行完成进程队列的队尾
+     */
+    private int advanceIndex(int j, long[] index, int[] cursor, int[] blocked, int[] work, int[] ready, int tail) {
+        int c = cursor[j];
+        while (c < index.length && (int) (index[c] >>> 32) <= work[j]) {
+            int i = (int) index[c];
+            if (--blocked[i] == 0) {
+                ready[tail++] = i;
+            }
+            c++;
+        }
+        cursor[j] = c;
+        return tail;
+    } // end advanceIndex()
 
     /**
      * 检查一个进程是否可以运行完成
@@ -158,92 +1188,231 @@ public class BankerAlgorithm {
      * @return 进程是否可以运行完成
      */
     private boolean checkProcessCanFinish(int processIndex, int[] work) {
-        for (int i = 0; i < available.length; i++) {
-            if (need[processIndex][i] > work[i]) {
-                return false;
-            }
-        }
-        return true;
+        return need.rowLessOrEqual(processIndex, work);
     } // end checkProcessCanFinish()
 
     /**
-     * 求安全序列
+     * 按安全序列依次输出各进程运行完成后的系统状态
      *
-     * @return 安全序列
+     * @param order 安全序列
      */
-    private List<Integer> findSafeSequence() {
-        safeSequence = new ArrayList<>();
-        int[] availableBackup = Arrays.copyOf(available, available.length);
-        int[][] allocationBackup = Arrays.stream(allocation)
-                .map(a -> Arrays.copyOf(a, a.length))
-                .toArray(int[][]::new);
-        finish = new boolean[max.length];
-        Arrays.fill(finish, false);
+    private void appendSafeSequenceSteps(int[] order) {
+        boolean[] released = new boolean[processCount]; // 已运行完成并释放资源的进程
 
-        while (safeSequence.size() < max.length) {
-            boolean foundProcess = false;
-            for (int i = 0; i < max.length; i++) {
-                if (!finish[i] && checkProcessCanFinish(i, available)) {
-                    for (int j = 0; j < available.length; j++) {
-                        available[j] += allocation[i][j];
-                        allocation[i][j] = 0;
-                        need[i][j] = 0;
-                    }
-                    finish[i] = true;
-                    safeSequence.add(i);
-                    foundProcess = true;
+        forEachSafeStep(order, (step, i, allocated, work) -> {
+            released[i] = true;
 
-                    result.append("运行进程：").append(i).append(" \n");
-                    result.append(this).append("\n");
-                    result.append("-------------------------------".repeat(5)).append("\n");
-                }
-            }
+            result.append("运行进程：").append(i).append(" \n");
+            appendState(result, work, released);
+            result.append("\n");
+            result.append("-------------------------------".repeat(5)).append("\n");
+        });
+    } // end appendSafeSequenceSteps()
 
-            if (!foundProcess) {
-                return new ArrayList<>(); // 如果没有找到可执行的进程，则返回空列表
-            }
+    /**
+     * 按安全序列依次模拟各进程运行完成并释放资源，产生步骤事件
+     *
+     * @param order    安全序列
+     * @param listener 步骤监听器
+     */
+    private void forEachSafeStep(int[] order, SafetyStepListener listener) {
+        int[] work = Arrays.copyOf(available, available.length);
+        for (int step = 0; step < order.length; step++) {
+            int i = order[step];
+            allocation.addRowTo(i, work);
+            listener.onStep(step, i, allocation.row(i), work);
         }
+    } // end forEachSafeStep()
 
-        /* 回滚至求安全序列前（试分配后）系统状态 */
-        this.setAvailable(availableBackup);
-        this.setAllocation(allocationBackup);
-        calculateNeed();
-
-        return safeSequence;
-    } // end findSafeSequence()
-
+    /**
+     * 获取系统可用资源数（直接修改返回的数组后需调用 calculateNeed，使安全性检查结果缓存失效）
+     */
     public int[] getAvailable() {
         return available;
     }
 
     public void setAvailable(int[] available) {
         this.available = available;
+        invalidateSafetyCache();
     }
 
+    /**
+     * 求系统资源总量：可用资源数加上各进程已占用资源数（分配、释放、添加与撤销进程都不改变总量）
+     */
+    public int[] getTotalResources() {
+        int[] total = Arrays.copyOf(available, available.length);
+        for (int i = 0; i < processCount; i++) {
+            allocation.addRowTo(i, total);
+        }
+        return total;
+    } // end getTotalResources()
+
+    /**
+     * 获取各进程最大需求量（副本，修改请使用 setMaxRow）
+     */
     public int[][] getMax() {
-        return max;
+        return max.toArray();
     }
 
     public void setMax(int[][] max) {
-        this.max = max;
+        this.max = ResourceMatrix.of(max, available.length);
+        resetMembership(max.length);
     }
 
+    /**
+     * 获取各进程已占用资源数（副本，修改请使用 setAllocationRow）
+     */
     public int[][] getAllocation() {
-        return allocation;
+        return allocation.toArray();
     }
 
     public void setAllocation(int[][] allocation) {
-        this.allocation = allocation;
+        this.allocation = ResourceMatrix.of(allocation, available.length);
+        resetMembership(allocation.length);
     }
 
+    /**
+     * 获取各进程还需资源数（副本）
+     */
     public int[][] getNeed() {
-        return need;
+        return need.toArray();
     }
 
     public void setNeed(int[][] need) {
-        this.need = need;
+        this.need = ResourceMatrix.of(need, available.length);
+        resetMembership(need.length);
     }
 
+    /**
+     * 设置安全性检查结果缓存容量
+     *
+     * @param capacity 缓存容量（0 表示不缓存）
+     */
+    public void setSafetyCacheCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("缓存容量必须>=0");
+        }
+        safetyCacheCapacity = capacity;
+        safetyCache.clear();
+    } // end setSafetyCacheCapacity()
+
+    /**
+     * 获取进程还需资源数（副本）
+     *
+     * @param processIndex 进程下标
+     * @return 还需资源数
+     */
+    public int[] getNeedRow(int processIndex) {
+        return need.row(processIndex);
+    } // end getNeedRow()
+
+    /**
+     * 获取进程最大需求量（副本）
+     */
+    public int[] getMaxRow(int processIndex) {
+        return max.row(processIndex);
+    } // end getMaxRow()
+
+    /**
+     * 获取进程已占用资源数（副本）
+     */
+    public int[] getAllocationRow(int processIndex) {
+        return allocation.row(processIndex);
+    } // end getAllocationRow()
+
+    /**
+     * 设置进程最大需求量（同步更新还需资源数）
+     *
+     * @param processIndex 进程下标
+     * @param maxDemand    最大需求量
+     */
+    public void setMaxRow(int processIndex, int[] maxDemand) {
+        max.setRow(processIndex, maxDemand);
+        for (int j = 0; j < available.length; j++) {
+            need.set(processIndex, j, max.get(processIndex, j) - allocation.get(processIndex, j));
+        }
+        invalidateSafetyCache();
+    } // end setMaxRow()
+
+    /**
+     * 设置进程已占用资源数（同步更新还需资源数）
+     *
+     * @param processIndex 进程下标
+     * @param allocated    已占用资源数
+     */
+    public void setAllocationRow(int processIndex, int[] allocated) {
+        allocation.setRow(processIndex, allocated);
+        for (int j = 0; j < available.length; j++) {
+            need.set(processIndex, j, max.get(processIndex, j) - allocation.get(processIndex, j));
+        }
+        invalidateSafetyCache();
+    } // end setAllocationRow()
+
+    /**
+     * 使状态哈希与安全性检查结果缓存失效（整体修改状态后调用）
+     */
+    private void invalidateSafetyCache() {
+        stateHashValid = false;
+        safetyCache.clear();
+        lastSafeSequence = null;
+    } // end invalidateSafetyCache()
+
+    /**
+     * 重新计算状态哈希 O(nm)
+     */
+    private void recomputeStateHash() {
+        stateHash1 = 0;
+        stateHash2 = 0;
+        stateHashValid = true;
+        updateStateHash(HASH_AVAILABLE, 0, available, 1);
+        for (int i = 0; i < processCount; i++) {
+            if (!removed[i]) {
+                updateStateHash(HASH_PRESENT, i, null, 1);
+                updateStateHash(HASH_MAX, i, max.row(i), 1);
+                updateStateHash(HASH_ALLOCATION, i, allocation.row(i), 1);
+            }
+        }
+    } // end recomputeStateHash()
+
+    /**
+     * 增量更新状态哈希 O(m)
+     * <p>
+     * 哈希是各元素与其位置系数乘积之和（模 2^64），因此某一行变化 delta 时只需加上 delta 与该行系数的乘积。
+     *
+     * @param kind  系数分类
+     * @param row   行下标
+     * @param delta 变化量，为 null 时表示进程存在标记本身
+     * @param sign  符号（1 或 -1）
+     */
+    private void updateStateHash(int kind, int row, int[] delta, int sign) {
+        if (!stateHashValid) {
+            return; // 使用前会整体重新计算
+        }
+        if (delta == null) {
+            stateHash1 += sign * hashCoefficient(HASH_SEED_1, kind, row, 0);
+            stateHash2 += sign * hashCoefficient(HASH_SEED_2, kind, row, 0);
+            return;
+        }
+        for (int j = 0; j < delta.length; j++) {
+            if (delta[j] != 0) {
+                long value = (long) sign * delta[j];
+                stateHash1 += value * hashCoefficient(HASH_SEED_1, kind, row, j);
+                stateHash2 += value * hashCoefficient(HASH_SEED_2, kind, row, j);
+            }
+        }
+    } // end updateStateHash()
+
+    /**
+     * 由位置生成哈希系数（SplitMix64 混合）
+     */
+    private static long hashCoefficient(long seed, int kind, int row, int column) {
+        long z = seed + (kind + 1L) * 0x9E3779B97F4A7C15L + (row + 1L) * 0xC2B2AE3D27D4EB4FL
+                + (column + 1L) * 0x165667B19E3779F9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    } // end hashCoefficient()
+
     public boolean[] getFinish() {
         return finish;
     }
@@ -252,23 +1421,35 @@ public class BankerAlgorithm {
         this.finish = finish;
     }
 
-    @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
+    /**
+     * 输出系统状态表
+     *
+     * @param sb       输出
+     * @param work     可用资源数
+     * @param released 已释放资源的进程（其 Allocation、Need 显示为0），为 null 时表示没有
+     */
+    private void appendState(StringBuilder sb, int[] work, boolean[] released) {
+        String zeros = Arrays.toString(new int[available.length]);
 
-        sb.append("Available = ").append(Arrays.toString(available)).append("\n");
+        sb.append("Available = ").append(Arrays.toString(work)).append("\n");
         sb.append("PID\t\tMax\t\tAllocation\t\tNeed\n");
-        for (int i = 0; i < max.length; i++) {
+        for (int i = 0; i < processCount; i++) {
+            boolean isReleased = released != null && released[i];
             sb.append(i).append("\t".repeat(2));
-            sb.append(Arrays.toString(max[i])).append("\t".repeat(2));
-            sb.append(Arrays.toString(allocation[i])).append("\t".repeat(2));
+            sb.append(max.rowToString(i)).append("\t".repeat(2));
+            sb.append(isReleased ? zeros : allocation.rowToString(i)).append("\t".repeat(2));
 
             /* 资源矩阵最后一行需要换行，以便后续信息显示 */
-            if (i == max.length - 1) {
-                sb.append(Arrays.toString(need[i]));
-            } else sb.append(Arrays.toString(need[i])).append("\n");
+            if (i == processCount - 1) {
+                sb.append(isReleased ? zeros : need.rowToString(i));
+            } else sb.append(isReleased ? zeros : need.rowToString(i)).append("\n");
         }
+    } // end appendState()
 
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        appendState(sb, available, null);
         return sb.toString();
     } // end toString()
 } // end class BankerAlgorithm
\ No newline at end of file
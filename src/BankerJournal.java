@@ -0,0 +1,491 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * 银行家算法预写日志类（崩溃恢复）
+ * <p>
+ * 目录中保存若干代快照 snapshot-代号.bnkr（BankerStateLoader 的二进制格式）与日志 journal-代号.log。
+ * 快照 G 是日志 G 之前全部记录的结果，恢复时取最新的完整快照，只重放代号不小于它的日志。
+ * <p>
+ * 分配与释放在调用方的锁内追加记录（只写入内存批次），在锁外等待持久化；
+ * 刷盘线程一次取走所有待写批次，写入后只调用一次 force，并发的多次分配共用一次刷盘（组提交）。
+ * 每追加一定数量的记录切换到新一代日志，快照由后台线程写入，完成后删除旧的快照与日志。
+ *
+ * @author agent
+ * @date 2026-10-19 08:40:11
+ */
+public class BankerJournal implements AutoCloseable {
+    public static final byte GRANT = 1; // 记录类型：分配
+    public static final byte RELEASE = 2; // 记录类型：释放
+    static final int DEFAULT_SNAPSHOT_INTERVAL = 100_000; // 默认每追加多少条记录生成一次快照
+    private static final int BATCH_CAPACITY = 1 << 16; // 每个内存批次的字节数
+    private static final String SNAPSHOT_PREFIX = "snapshot-", SNAPSHOT_SUFFIX = ".bnkr"; // 快照文件名
+    private static final String JOURNAL_PREFIX = "journal-", JOURNAL_SUFFIX = ".log"; // 日志文件名
+
+    private final Path directory; // 日志目录
+    private final BankerAlgorithm banker; // 恢复得到（或初始）的系统状态
+    private final int recordSize; // 每条记录的字节数：类型 1 + 进程下标 4 + 向量 4m + CRC32 4
+    private final int snapshotInterval; // 每追加多少条记录生成一次快照
+
+    private final Object monitor = new Object(); // 保护以下状态
+    private final ArrayDeque<Batch> pending = new ArrayDeque<>(); // 待写入的批次
+    private int generation; // 新记录写入的日志代号
+    private long appendedSequence; // 已追加的最后一条记录的序号
+    private long durableSequence; // 已持久化的最后一条记录的序号
+    private long recordsSinceSnapshot; // 上次快照以来追加的记录数
+    private IOException failure; // 日志写入失败的原因
+    private IOException snapshotFailure; // 最近一次快照写入失败的原因（之后的快照成功时清除）
+    private boolean closed; // 是否已关闭
+
+    private final Thread flusher; // 刷盘线程
+    private final ExecutorService snapshotWriter; // 快照写入线程
+    private FileChannel channel; // 当前日志文件（只由刷盘线程访问）
+    private int channelGeneration = -1; // 当前日志文件的代号（只由刷盘线程访问）
+
+    /**
+     * 内存中的待写批次
+     */
+    private static final class Batch {
+        final int generation; // 所属日志代号
+        final ByteBuffer data; // 记录数据
+        final BankerAlgorithm snapshot; // 该代的快照（只有每代的第一个批次才有）
+        long lastSequence; // 批次中最后一条记录的序号
+
+        Batch(int generation, int capacity, BankerAlgorithm snapshot, long lastSequence) {
+            this.generation = generation;
+            this.data = ByteBuffer.allocate(capacity);
+            this.snapshot = snapshot;
+            this.lastSequence = lastSequence;
+        } // end Batch()
+    } // end class Batch
+
+    private BankerJournal(Path directory, BankerAlgorithm banker, int generation, int snapshotInterval) {
+        this.directory = directory;
+        this.banker = banker;
+        this.recordSize = 1 + Integer.BYTES * (banker.getAvailable().length + 2);
+        this.generation = generation;
+        this.snapshotInterval = snapshotInterval;
+        this.snapshotWriter = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "banker-journal-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher = new Thread(this::flushLoop, "banker-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    } // end BankerJournal()
+
+    /**
+     * 打开日志目录：目录中已有快照时从中恢复，否则以 initial 为初始状态
+     *
+     * @param directory 日志目录
+     * @param initial   初始状态（目录中已有快照时忽略，可为 null）
+     * @return 预写日志
+     * @throws Exception 读取失败或日志与快照不一致
+     */
+    public static BankerJournal open(Path directory, BankerAlgorithm initial) throws Exception {
+        return open(directory, initial, DEFAULT_SNAPSHOT_INTERVAL);
+    } // end open()
+
+    /**
+     * 打开日志目录：目录中已有快照时从中恢复，否则以 initial 为初始状态
+     *
+     * @param directory        日志目录
+     * @param initial          初始状态（目录中已有快照时忽略，可为 null）
+     * @param snapshotInterval 每追加多少条记录生成一次快照
+     * @return 预写日志
+     * @throws Exception 读取失败或日志与快照不一致
+     */
+    public static BankerJournal open(Path directory, BankerAlgorithm initial, int snapshotInterval) throws Exception {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("快照间隔必须>0");
+        }
+        Files.createDirectories(directory);
+        int latestSnapshot = latestGeneration(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+
+        BankerAlgorithm banker;
+        int nextGeneration;
+        if (latestSnapshot >= 0) {
+            banker = BankerStateLoader.load(fileOf(directory, SNAPSHOT_PREFIX, latestSnapshot, SNAPSHOT_SUFFIX));
+            int latestJournal = latestGeneration(directory, JOURNAL_PREFIX, JOURNAL_SUFFIX);
+            for (int g = latestSnapshot; g <= latestJournal; g++) {
+                replay(fileOf(directory, JOURNAL_PREFIX, g, JOURNAL_SUFFIX), banker, g == latestJournal);
+            }
+            nextGeneration = Math.max(latestSnapshot, latestJournal) + 1;
+        } else if (initial != null) {
+            deleteOlderThan(directory, Integer.MAX_VALUE); // 没有快照时残留的日志无法重放
+            banker = initial;
+            nextGeneration = 0;
+        } else {
+            throw new Exception("读取错误：日志目录 " + directory + " 中没有快照，且未提供初始状态");
+        }
+
+        /* 恢复后立即保存快照，下次恢复无需再重放这些日志 */
+        writeSnapshot(directory, banker, nextGeneration);
+        deleteOlderThan(directory, nextGeneration);
+        return new BankerJournal(directory, banker, nextGeneration, snapshotInterval);
+    } // end open()
+
+    /**
+     * 获取恢复得到（或初始）的系统状态
+     */
+    public BankerAlgorithm getBanker() {
+        return banker;
+    } // end getBanker()
+
+    /**
+     * 追加一条记录（只写入内存批次，应在修改系统状态的锁内调用，保证记录顺序与修改顺序一致）
+     *
+     * @param type         记录类型（GRANT 或 RELEASE）
+     * @param processIndex 进程下标
+     * @param vector       分配或释放的向量
+     * @return 记录序号（用于 awaitDurable）
+     */
+    public long append(byte type, int processIndex, int[] vector) {
+        synchronized (monitor) {
+            if (closed) {
+                throw new IllegalStateException("日志已关闭");
+            }
+            Batch batch = pending.peekLast();
+            if (batch == null || batch.generation != generation || batch.data.remaining() < recordSize) {
+                batch = new Batch(generation, Math.max(BATCH_CAPACITY, recordSize), null, appendedSequence);
+                pending.addLast(batch);
+            }
+
+            ByteBuffer data = batch.data;
+            int start = data.position();
+            data.put(type).putInt(processIndex);
+            for (int value : vector) {
+                data.putInt(value);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data.array(), start, data.position() - start);
+            data.putInt((int) crc.getValue());
+
+            batch.lastSequence = ++appendedSequence;
+            recordsSinceSnapshot++;
+            monitor.notifyAll();
+            return appendedSequence;
+        }
+    } // end append()
+
+    /**
+     * 是否到了生成快照的时候
+     */
+    public boolean isSnapshotDue() {
+        synchronized (monitor) {
+            return recordsSinceSnapshot >= snapshotInterval;
+        }
+    } // end isSnapshotDue()
+
+    /**
+     * 切换到新一代日志，并在后台写入当前状态的快照（应在修改系统状态的锁内调用）
+     *
+     * @param state 当前状态的副本（通常为 fork() 得到的写时复制副本，之后不能再被修改）
+     */
+    public void rotate(BankerAlgorithm state) {
+        synchronized (monitor) {
+            generation++;
+            recordsSinceSnapshot = 0;
+            pending.addLast(new Batch(generation, 0, state, appendedSequence));
+            monitor.notifyAll();
+        }
+    } // end rotate()
+
+    /**
+     * 等待记录持久化
+     *
+     * @param sequence 记录序号
+     * @throws IOException 日志写入失败
+     */
+    public void awaitDurable(long sequence) throws IOException {
+        boolean interrupted = false;
+        synchronized (monitor) {
+            while (durableSequence < sequence && failure == null) {
+                try {
+                    monitor.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true; // 记录已在批次中，必须等到写入结果
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (durableSequence < sequence) {
+                throw new IOException("日志写入失败", failure);
+            }
+        }
+    } // end awaitDurable()
+
+    /**
+     * 关闭日志：写入剩余记录后停止刷盘线程
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (monitor) {
+            closed = true;
+            monitor.notifyAll();
+        }
+        try {
+            flusher.join();
+            snapshotWriter.shutdown();
+            snapshotWriter.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        synchronized (monitor) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    } // end close()
+
+    /**
+     * 刷盘线程：取走所有待写批次，写入后统一 force 一次
+     */
+    private void flushLoop() {
+        while (true) {
+            List<Batch> batches;
+            synchronized (monitor) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        monitor.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    return; // 已关闭且没有剩余记录
+                }
+                batches = new ArrayList<>(pending);
+                pending.clear();
+            }
+
+            try {
+                for (Batch batch : batches) {
+                    if (batch.generation != channelGeneration) {
+                        switchChannel(batch.generation);
+                    }
+                    if (batch.snapshot != null) {
+                        int snapshotGeneration = batch.generation;
+                        snapshotWriter.execute(() -> saveSnapshot(batch.snapshot, snapshotGeneration));
+                    }
+                    ByteBuffer data = batch.data.flip();
+                    while (data.hasRemaining()) {
+                        channel.write(data);
+                    }
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                synchronized (monitor) {
+                    failure = e;
+                    monitor.notifyAll();
+                }
+                return;
+            }
+
+            synchronized (monitor) {
+                durableSequence = batches.get(batches.size() - 1).lastSequence;
+                monitor.notifyAll();
+            }
+        }
+    } // end flushLoop()
+
+    /**
+     * 关闭上一代日志（先持久化），打开新一代日志
+     */
+    private void switchChannel(int newGeneration) throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+        }
+        channel = FileChannel.open(fileOf(directory, JOURNAL_PREFIX, newGeneration, JOURNAL_SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        syncDirectory(directory); // 新日志的目录项持久化后，其中已 force 的记录才不会因崩溃丢失
+        channelGeneration = newGeneration;
+    } // end switchChannel()
+
+    /**
+     * 后台写入快照，成功后删除更早的快照与日志（失败时保留旧文件，恢复仍可从旧快照重放，失败原因由 getSnapshotFailure 查询）
+     */
+    private void saveSnapshot(BankerAlgorithm state, int snapshotGeneration) {
+        IOException error = null;
+        try {
+            writeSnapshot(directory, state, snapshotGeneration);
+            deleteOlderThan(directory, snapshotGeneration);
+        } catch (IOException e) {
+            error = e;
+        }
+        synchronized (monitor) {
+            snapshotFailure = error;
+        }
+    } // end saveSnapshot()
+
+    /**
+     * 获取最近一次后台快照写入失败的原因
+     * <p>
+     * 快照失败不影响日志记录的持久化，但旧的日志不会被删除，恢复时需要重放的记录随之增多；
+     * 之后的快照成功时清除。
+     *
+     * @return 失败原因，最近一次快照成功（或尚未写入快照）时为 null
+     */
+    public IOException getSnapshotFailure() {
+        synchronized (monitor) {
+            return snapshotFailure;
+        }
+    } // end getSnapshotFailure()
+
+    /**
+     * 写入快照：先写临时文件并持久化，再原子地重命名，保证快照文件总是完整的；
+     * 重命名后持久化目录，之后才能删除旧的快照与日志，否则崩溃后新快照的目录项与旧日志可能同时丢失
+     */
+    private static void writeSnapshot(Path directory, BankerAlgorithm state, int snapshotGeneration) throws IOException {
+        Path target = fileOf(directory, SNAPSHOT_PREFIX, snapshotGeneration, SNAPSHOT_SUFFIX);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        BankerStateLoader.saveBinary(state, temp);
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(directory);
+    } // end writeSnapshot()
+
+    /**
+     * 持久化目录（其中文件的创建、重命名与删除）
+     */
+    private static void syncDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            // Windows 不能以通道打开目录，其文件系统在重命名返回时已记录目录项
+        }
+    } // end syncDirectory()
+
+    /**
+     * 重放一代日志
+     *
+     * @param path   日志文件
+     * @param banker 系统状态
+     * @param isLast 是否为最后一代日志（其末尾可能有崩溃时未写完的记录，截断即可）
+     * @return 有效记录的总长度
+     */
+    private static long replay(Path path, BankerAlgorithm banker, boolean isLast) throws Exception {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        int m = banker.getAvailable().length;
+        int recordSize = 1 + Integer.BYTES * (m + 2);
+        long validLength = 0;
+
+        try (FileChannel input = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(BATCH_CAPACITY, recordSize));
+            CRC32 crc = new CRC32();
+            int[] vector = new int[m];
+            boolean endOfFile = false;
+            while (!endOfFile) {
+                endOfFile = input.read(buffer) < 0;
+                buffer.flip();
+                while (buffer.remaining() >= recordSize) {
+                    int start = buffer.position();
+                    crc.reset();
+                    crc.update(buffer.array(), start, recordSize - Integer.BYTES);
+                    if (buffer.getInt(start + recordSize - Integer.BYTES) != (int) crc.getValue()) {
+                        return truncateTail(input, path, validLength, isLast);
+                    }
+
+                    byte type = buffer.get();
+                    int processIndex = buffer.getInt();
+                    for (int j = 0; j < m; j++) {
+                        vector[j] = buffer.getInt();
+                    }
+                    buffer.getInt(); // CRC32
+                    boolean applied = type == GRANT ? banker.allocate(processIndex, vector)
+                            : type == RELEASE && banker.release(processIndex, vector);
+                    if (!applied) {
+                        throw new Exception("解析错误：日志 " + path + " 在位置 " + validLength + " 处的记录与快照不一致");
+                    }
+                    validLength += recordSize;
+                }
+                buffer.compact();
+            }
+            if (buffer.position() > 0) {
+                return truncateTail(input, path, validLength, isLast); // 末尾不足一条记录
+            }
+        }
+        return validLength;
+    } // end replay()
+
+    /**
+     * 处理损坏的日志末尾：最后一代日志的末尾是崩溃时未写完的记录，截断即可；更早的日志损坏则无法恢复
+     *
+     * @return 有效长度
+     */
+    private static long truncateTail(FileChannel input, Path path, long validLength, boolean isLast) throws Exception {
+        if (!isLast) {
+            throw new Exception("解析错误：日志 " + path + " 在位置 " + validLength + " 处损坏");
+        }
+        input.truncate(validLength);
+        return validLength;
+    } // end truncateTail()
+
+    /**
+     * 删除代号小于 generation 的快照与日志，以及残留的临时文件
+     */
+    private static void deleteOlderThan(Path directory, int generation) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                int g = Math.max(generationOf(name, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX),
+                        generationOf(name, JOURNAL_PREFIX, JOURNAL_SUFFIX));
+                if ((g >= 0 && g < generation) || (name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(".tmp")
+                        && generationOf(name.substring(0, name.length() - 4), SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < generation)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    } // end deleteOlderThan()
+
+    /**
+     * 求目录中某类文件的最大代号
+     *
+     * @return 最大代号，不存在时为 -1
+     */
+    private static int latestGeneration(Path directory, String prefix, String suffix) throws IOException {
+        int latest = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                latest = Math.max(latest, generationOf(file.getFileName().toString(), prefix, suffix));
+            }
+        }
+        return latest;
+    } // end latestGeneration()
+
+    /**
+     * 由文件名解析代号
+     *
+     * @return 代号，文件名不符合格式时为 -1
+     */
+    private static int generationOf(String name, String prefix, String suffix) {
+        if (!name.startsWith(prefix) || !name.endsWith(suffix) || name.length() <= prefix.length() + suffix.length()) {
+            return -1;
+        }
+        String digits = name.substring(prefix.length(), name.length() - suffix.length());
+        for (int k = 0; k < digits.length(); k++) {
+            if (digits.charAt(k) < '0' || digits.charAt(k) > '9') {
+                return -1;
+            }
+        }
+        return digits.length() > 9 ? -1 : Integer.parseInt(digits);
+    } // end generationOf()
+
+    private static Path fileOf(Path directory, String prefix, int generation, String suffix) {
+        return directory.resolve(prefix + generation + suffix);
+    } // end fileOf()
+} // end class BankerJournal
@@ -0,0 +1,79 @@
+import java.util.SplittableRandom;
+
+/**
+ * 银行家算法向量运算内核基准测试类
+ * <p>
+ * 对比标量实现与启动时选定的实现在安全性检查中的耗时。资源种类数较多时 SIMD 实现才有明显优势。
+ * 计时前先交替运行两种实现完成 JIT 预热（Vector API 的内联与向量化需要较多次调用才生效），预热不计入耗时。
+ * <p>
+ * 用法：java --add-modules jdk.incubator.vector BankerKernelBenchmark [进程数] [资源种类数] [计时次数] [预热次数]
+ * （需先编译 src-simd 中的 SIMD 实现，否则两种实现都是标量实现）
+ *
+ * @author agent
+ * @date 2026-10-19 08:26:55
+ */
+public class BankerKernelBenchmark {
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        int repeats = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int warmups = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+
+        ResourceMatrix need = new DenseResourceMatrix(n, m), allocation = new DenseResourceMatrix(n, m);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                need.set(i, j, random.nextInt(8));
+                allocation.set(i, j, random.nextInt(4));
+            }
+        }
+        int[] available = new int[m];
+        java.util.Arrays.fill(available, 8);
+        int[] needData = need.toFlatArray(), allocationData = allocation.toFlatArray(); // 在计时之外展开矩阵
+        VectorKernels[] candidates = {VectorKernels.SCALAR, VectorKernels.INSTANCE};
+
+        System.out.println("选定的实现：" + VectorKernels.INSTANCE.name());
+        long warmupChecksum = 0;
+        for (int r = 0; r < warmups; r++) { // 预热阶段：交替运行，两种实现都在计时前完成编译
+            for (VectorKernels kernels : candidates) {
+                warmupChecksum += safetyPass(kernels, needData, allocationData, available, n, m);
+            }
+        }
+        System.out.println("预热 " + warmups + " 次完成（校验和 " + warmupChecksum + "）");
+
+        for (VectorKernels kernels : candidates) {
+            long checksum = 0;
+            long start = System.nanoTime();
+            for (int r = 0; r < repeats; r++) {
+                checksum += safetyPass(kernels, needData, allocationData, available, n, m);
+            }
+            double millis = (System.nanoTime() - start) / 1e6 / repeats;
+            System.out.printf("%s\t每次安全性检查 %.3f ms（校验和 %d）%n", kernels.name(), millis, checksum);
+        }
+    } // end main()
+
+    /**
+     * 按轮扫描的安全性检查（与 BankerAlgorithm 的扫描版相同的访问模式，矩阵按行优先展开）
+     *
+     * @return 能完成的进程数
+     */
+    private static int safetyPass(VectorKernels kernels, int[] needData, int[] allocationData, int[] available,
+                                  int n, int m) {
+        int[] work = available.clone();
+        boolean[] finish = new boolean[n];
+        int finished = 0;
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (int i = 0; i < n; i++) {
+                if (!finish[i] && kernels.lessOrEqual(needData, i * m, work, m)) {
+                    kernels.addInto(work, allocationData, i * m, m);
+                    finish[i] = true;
+                    finished++;
+                    progress = true;
+                }
+            }
+        }
+        return finished;
+    } // end safetyPass()
+} // end class BankerKernelBenchmark
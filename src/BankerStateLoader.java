@@ -0,0 +1,300 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 银行家算法系统状态文件加载类
+ * <p>
+ * 支持两种格式，按文件开头的魔数区分：
+ * <ul>
+ *     <li>文本格式：依次为进程数 n、资源种类数 m、Available 的 m 个数，然后每个进程的 Max 的 m 个数和 Allocation 的 m 个数；
+ *     数之间可用逗号、空白或换行分隔，# 之后到行尾为注释。例如每个进程写一行“Max,Allocation”。</li>
+ *     <li>二进制格式：魔数 BNKR，之后按相同顺序存放的大端序 int32（n、m、Available、各进程的 Max 与 Allocation）。</li>
+ * </ul>
+ * 文件通过内存映射分段读取，数字直接填入资源矩阵，不生成中间字符串或行对象；读取 Allocation 的同时验证其不超过 Max。
+ *
+ * @author agent
+ * @date 2026-10-19 08:33:49
+ */
+public class BankerStateLoader {
+    static final int MAGIC = 0x424E4B52; // 二进制格式魔数 "BNKR"
+    private static final long WINDOW_SIZE = 1L << 26; // 内存映射窗口大小（64MB）
+    private static final int WRITE_BUFFER_SIZE = 1 << 16; // 写入缓冲区大小
+
+    private final FileChannel channel; // 文件通道
+    private final boolean sparse; // 是否以稀疏矩阵存放 Max 与 Allocation
+    private final long size; // 文件大小
+    private MappedByteBuffer window; // 当前映射窗口
+    private long windowStart; // 当前窗口在文件中的起始位置
+
+    private BankerStateLoader(FileChannel channel, boolean sparse) throws IOException {
+        this.channel = channel;
+        this.sparse = sparse;
+        this.size = channel.size();
+        map(0);
+    } // end BankerStateLoader()
+
+    /**
+     * 加载系统状态文件（自动识别文本或二进制格式）
+     *
+     * @param path 文件路径
+     * @return 银行家算法器
+     * @throws Exception 异常
+     */
+    public static BankerAlgorithm load(Path path) throws Exception {
+        return load(path, false);
+    } // end load()
+
+    /**
+     * 加载系统状态文件（自动识别文本或二进制格式）
+     *
+     * @param path   文件路径
+     * @param sparse 是否以稀疏矩阵存放（进程大多只占用、只需要少数几类资源时内存与安全性检查时间更少）
+     * @return 银行家算法器
+     * @throws Exception 异常
+     */
+    public static BankerAlgorithm load(Path path, boolean sparse) throws Exception {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            BankerStateLoader loader = new BankerStateLoader(channel, sparse);
+            return loader.isBinary() ? loader.readBinary() : loader.readText();
+        } catch (IOException e) {
+            throw new Exception("读取错误：无法读取系统状态文件 " + path, e);
+        }
+    } // end load()
+
+    /**
+     * 以二进制格式保存系统状态（已撤销进程保存为全0行）
+     *
+     * @param banker 银行家算法器
+     * @param path   文件路径
+     * @throws IOException 写入失败
+     */
+    public static void saveBinary(BankerAlgorithm banker, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeBinary(banker, channel);
+            channel.force(true);
+        }
+    } // end saveBinary()
+
+    /**
+     * 将系统状态以二进制格式写入通道的当前位置
+     *
+     * @param banker  银行家算法器
+     * @param channel 文件通道
+     * @throws IOException 写入失败
+     */
+    static void writeBinary(BankerAlgorithm banker, FileChannel channel) throws IOException {
+        int[] available = banker.getAvailable();
+        int n = banker.getProcessCount(), m = available.length;
+        ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+        buffer.putInt(MAGIC).putInt(n).putInt(m);
+        buffer = putInts(channel, buffer, available);
+        for (int i = 0; i < n; i++) {
+            buffer = putInts(channel, buffer, banker.getMaxRow(i));
+            buffer = putInts(channel, buffer, banker.getAllocationRow(i));
+        }
+        flush(channel, buffer);
+    } // end writeBinary()
+
+    private static ByteBuffer putInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+        for (int value : values) {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush(channel, buffer);
+            }
+            buffer.putInt(value);
+        }
+        return buffer;
+    } // end putInts()
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    } // end flush()
+
+    private ResourceMatrix newMatrix(int n, int m) {
+        return sparse ? new SparseResourceMatrix(n, m) : new DenseResourceMatrix(n, m);
+    } // end newMatrix()
+
+    /**
+     * 读取二进制格式
+     */
+    private BankerAlgorithm readBinary() throws Exception {
+        skip(Integer.BYTES); // 魔数
+        int n = readBinaryInt(), m = readBinaryInt();
+        checkSize(n, m);
+        if (size != 12L + 4L * m * (1 + 2L * n)) {
+            throw new Exception("解析错误：二进制文件长度与进程数 " + n + "、资源种类数 " + m + " 不符");
+        }
+
+        int[] available = new int[m];
+        for (int j = 0; j < m; j++) {
+            available[j] = checkNonNegative(readBinaryInt(), "Available");
+        }
+        ResourceMatrix max = newMatrix(n, m), allocation = newMatrix(n, m);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                max.set(i, j, checkNonNegative(readBinaryInt(), "Max"));
+            }
+            for (int j = 0; j < m; j++) {
+                allocation.set(i, j, checkAllocation(readBinaryInt(), max.get(i, j), i));
+            }
+        }
+        return new BankerAlgorithm(available, max, allocation);
+    } // end readBinary()
+
+    /**
+     * 读取文本格式
+     */
+    private BankerAlgorithm readText() throws Exception {
+        int n = readTextInt("进程数"), m = readTextInt("资源种类数");
+        checkSize(n, m);
+
+        int[] available = new int[m];
+        for (int j = 0; j < m; j++) {
+            available[j] = readTextInt("Available");
+        }
+        ResourceMatrix max = newMatrix(n, m), allocation = newMatrix(n, m);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                max.set(i, j, readTextInt("Max"));
+            }
+            for (int j = 0; j < m; j++) {
+                allocation.set(i, j, checkAllocation(readTextInt("Allocation"), max.get(i, j), i));
+            }
+        }
+        if (skipSeparators()) {
+            throw new Exception("解析错误：位置 " + position() + " 处有多余的数据");
+        }
+        return new BankerAlgorithm(available, max, allocation);
+    } // end readText()
+
+    /**
+     * 读取一个文本格式的整数（>=0）
+     *
+     * @param what 所读取的内容（用于错误信息）
+     */
+    private int readTextInt(String what) throws Exception {
+        if (!skipSeparators()) {
+            throw new Exception("解析错误：文件在读取 " + what + " 时意外结束");
+        }
+        long start = position();
+        long value = 0;
+        int b = peek();
+        if (b < '0' || b > '9') {
+            throw new Exception("解析错误：位置 " + start + " 处应为>=0的整数（读取 " + what + "）");
+        }
+        while (b >= '0' && b <= '9') {
+            value = value * 10 + (b - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw new Exception("解析错误：位置 " + start + " 处的整数过大");
+            }
+            skip(1);
+            b = hasRemaining() ? peek() : -1;
+        }
+        if (b != -1 && !isSeparator(b) && b != '#') {
+            throw new Exception("解析错误：位置 " + position() + " 处有非法字符");
+        }
+        return (int) value;
+    } // end readTextInt()
+
+    /**
+     * 跳过分隔符与注释
+     *
+     * @return 之后是否还有数据
+     */
+    private boolean skipSeparators() throws IOException {
+        while (hasRemaining()) {
+            int b = peek();
+            if (b == '#') {
+                while (hasRemaining() && peek() != '\n') {
+                    skip(1);
+                }
+            } else if (isSeparator(b)) {
+                skip(1);
+            } else {
+                return true;
+            }
+        }
+        return false;
+    } // end skipSeparators()
+
+    private static boolean isSeparator(int b) {
+        return b == ',' || b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    } // end isSeparator()
+
+    private boolean isBinary() {
+        return size >= Integer.BYTES && window.getInt(0) == MAGIC;
+    } // end isBinary()
+
+    private int readBinaryInt() throws IOException {
+        if (window.remaining() >= Integer.BYTES) {
+            return window.getInt();
+        }
+        int value = 0;
+        for (int k = 0; k < Integer.BYTES; k++) { // 跨越映射窗口边界
+            value = (value << 8) | peek();
+            skip(1);
+        }
+        return value;
+    } // end readBinaryInt()
+
+    private int peek() throws IOException {
+        if (!window.hasRemaining()) {
+            map(position());
+        }
+        return window.get(window.position()) & 0xFF;
+    } // end peek()
+
+    private void skip(int bytes) throws IOException {
+        long target = position() + bytes;
+        if (target > windowStart + window.limit()) {
+            map(target);
+        } else {
+            window.position((int) (target - windowStart));
+        }
+    } // end skip()
+
+    private boolean hasRemaining() {
+        return position() < size;
+    } // end hasRemaining()
+
+    private long position() {
+        return windowStart + window.position();
+    } // end position()
+
+    /**
+     * 从文件位置 start 开始映射一个窗口
+     */
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, size - start));
+    } // end map()
+
+    private static void checkSize(int n, int m) throws Exception {
+        if (n < 0 || m <= 0) {
+            throw new Exception("解析错误：进程数必须>=0，资源种类数必须>0");
+        }
+    } // end checkSize()
+
+    private static int checkNonNegative(int value, String what) throws Exception {
+        if (value < 0) {
+            throw new Exception("解析错误：" + what + " 必须为>=0的整数");
+        }
+        return value;
+    } // end checkNonNegative()
+
+    private static int checkAllocation(int value, int max, int processIndex) throws Exception {
+        checkNonNegative(value, "Allocation");
+        if (value > max) {
+            throw new Exception("解析错误：进程 " + processIndex + " 的已占用资源数超过了最大需求量");
+        }
+        return value;
+    } // end checkAllocation()
+} // end class BankerStateLoader
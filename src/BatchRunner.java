@@ -0,0 +1,226 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 命令行批量调度模拟类（无界面，按参数网格并行运行并输出 CSV 结果）
+ * <p>
+ * 用法：java BatchRunner -w 负载文件[,负载文件...] [-a FCFS,HPF] [-q 时间片,...] [-r 老化速率,...]
+ * [-d 衰减方式[:步长],...] [-t 线程数] [-o 结果文件]
+ *
+ * @author agent
+ * @date 2026-10-19 08:15:45
+ */
+public class BatchRunner {
+    private static final String FCFS = "FCFS";
+    private static final String HPF = "HPF";
+    private static final String CSV_HEADER = "workload,algorithm,quantum,agingRate,decay," + SchedulingMetrics.CSV_HEADER;
+    private static final String USAGE = "用法：java BatchRunner -w 负载文件[,负载文件...] [-a FCFS,HPF] [-q 时间片,...]"
+            + " [-r 老化速率,...] [-d LINEAR:步长|HALVING|NONE,...] [-t 线程数] [-o 结果文件]\n"
+            + "负载文件每行格式：进程名,优先数,到达时间,需要运行时间";
+
+    /**
+     * 一次模拟任务（参数网格中的一个组合）
+     */
+    private static final class Job implements Callable<String> {
+        private final String workloadName; // 负载名
+        private final List<PCB> workload; // 负载进程模板（只读）
+        private final String algorithm; // 调度算法
+        private final int quantum; // 时间片长度
+        private final AgingPolicy agingPolicy; // HPF 老化与衰减策略（FCFS 为 null）
+
+        Job(String workloadName, List<PCB> workload, String algorithm, int quantum, AgingPolicy agingPolicy) {
+            this.workloadName = workloadName;
+            this.workload = workload;
+            this.algorithm = algorithm;
+            this.quantum = quantum;
+            this.agingPolicy = agingPolicy;
+        } // end Job()
+
+        @Override
+        public String call() {
+            /* 每个任务使用独立的调度器和进程副本，任务之间不共享可变状态 */
+            Scheduler scheduler = agingPolicy == null ? new FCFScheduler() : new HPFScheduler(agingPolicy);
+            scheduler.setTimeSlice(quantum);
+            List<PCB> processes = new ArrayList<>(workload.size());
+            for (PCB process : workload) {
+                processes.add(new PCB(process));
+            }
+
+            SchedulingMetrics metrics = SchedulingSimulation.run(scheduler, processes);
+            String aging = agingPolicy == null ? "" : String.valueOf(agingPolicy.getAgingRate());
+            String decay = agingPolicy == null ? "" : formatDecay(agingPolicy);
+            return String.join(",", escapeCsv(workloadName), algorithm, String.valueOf(quantum), aging, decay)
+                    + "," + metrics.toCsv();
+        } // end call()
+    } // end class Job
+
+    public static void main(String[] args) {
+        try {
+            System.exit(run(args));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        } catch (Exception e) {
+            System.err.println("批量模拟失败：" + e.getMessage());
+            System.exit(1);
+        }
+    } // end main()
+
+    /**
+     * 解析参数并运行全部组合
+     *
+     * @param args 命令行参数
+     * @return 退出码
+     * @throws Exception 异常
+     */
+    static int run(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        if (!options.containsKey("-w")) {
+            throw new IllegalArgumentException("缺少负载文件参数 -w");
+        }
+
+        List<String> algorithms = splitList(options.getOrDefault("-a", FCFS + "," + HPF));
+        List<Integer> quanta = parseIntList(options.getOrDefault("-q", "1"), 1);
+        List<Integer> agingRates = parseIntList(options.getOrDefault("-r", "0"), 0);
+        List<String> decays = splitList(options.getOrDefault("-d", "LINEAR:1"));
+        int threads = Integer.parseInt(options.getOrDefault("-t",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        if (threads <= 0) {
+            throw new IllegalArgumentException("线程数必须>0");
+        }
+
+        /* 构建参数网格（老化与衰减参数只对 HPF 有效） */
+        List<Job> jobs = new ArrayList<>();
+        for (String file : splitList(options.get("-w"))) {
+            Path path = Paths.get(file);
+            List<PCB> workload = WorkloadParser.parseWorkloadFile(path);
+            String workloadName = path.getFileName().toString();
+            for (String algorithm : algorithms) {
+                for (int quantum : quanta) {
+                    if (FCFS.equalsIgnoreCase(algorithm)) {
+                        jobs.add(new Job(workloadName, workload, FCFS, quantum, null));
+                    } else if (HPF.equalsIgnoreCase(algorithm)) {
+                        for (int agingRate : agingRates) {
+                            for (String decay : decays) {
+                                jobs.add(new Job(workloadName, workload, HPF, quantum, parseAgingPolicy(agingRate, decay)));
+                            }
+                        }
+                    } else {
+                        throw new IllegalArgumentException("未知的调度算法：" + algorithm);
+                    }
+                }
+            }
+        }
+
+        /* 并行运行全部组合，按网格顺序输出结果 */
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (PrintWriter out = openOutput(options.get("-o"))) {
+            List<Future<String>> results = executor.invokeAll(jobs);
+            out.println(CSV_HEADER);
+            for (Future<String> result : results) {
+                try {
+                    out.println(result.get());
+                } catch (ExecutionException e) {
+                    throw new Exception(e.getCause().getMessage(), e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return 0;
+    } // end run()
+
+    /**
+     * 解析“-选项 值”形式的命令行参数
+     *
+     * @param args 命令行参数
+     * @return 选项表
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (!Arrays.asList("-w", "-a", "-q", "-r", "-d", "-t", "-o").contains(option)) {
+                throw new IllegalArgumentException("未知参数：" + option);
+            } else if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("参数 " + option + " 缺少取值");
+            }
+            options.put(option, args[++i]);
+        }
+        return options;
+    } // end parseOptions()
+
+    private static List<String> splitList(String text) {
+        List<String> items = new ArrayList<>();
+        for (String item : text.split(",")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    } // end splitList()
+
+    private static List<Integer> parseIntList(String text, int min) {
+        List<Integer> values = new ArrayList<>();
+        for (String item : splitList(text)) {
+            int value;
+            try {
+                value = Integer.parseInt(item);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("参数值应为整数：" + item);
+            }
+            if (value < min) {
+                throw new IllegalArgumentException("参数值必须>=" + min + "：" + item);
+            }
+            values.add(value);
+        }
+        return values;
+    } // end parseIntList()
+
+    /**
+     * 解析衰减参数（LINEAR:步长、HALVING 或 NONE）
+     *
+     * @param agingRate 老化速率
+     * @param decay     衰减参数
+     * @return 老化与衰减策略
+     */
+    private static AgingPolicy parseAgingPolicy(int agingRate, String decay) {
+        String[] parts = decay.split(":");
+        try {
+            AgingPolicy.DecayMode mode = AgingPolicy.DecayMode.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+            int step = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            return new AgingPolicy(agingRate, mode, step);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("衰减参数不正确：" + decay);
+        }
+    } // end parseAgingPolicy()
+
+    private static String formatDecay(AgingPolicy agingPolicy) {
+        return agingPolicy.getDecayMode() == AgingPolicy.DecayMode.LINEAR
+                ? "LINEAR:" + agingPolicy.getDecayStep() : agingPolicy.getDecayMode().name();
+    } // end formatDecay()
+
+    private static String escapeCsv(String value) {
+        if (value.contains(",") || value.contains("\"")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    } // end escapeCsv()
+
+    private static PrintWriter openOutput(String file) throws IOException {
+        if (file == null) {
+            return new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+                @Override
+                public void close() {
+                    flush(); // 不关闭标准输出
+                }
+            };
+        }
+        return new PrintWriter(Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8));
+    } // end openOutput()
+} // end class BatchRunner
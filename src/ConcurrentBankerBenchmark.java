@@ -0,0 +1,86 @@
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 并发资源管理器吞吐量基准测试类
+ * <p>
+ * 每个线程代表一个进程，循环申请随机资源、持有后释放；可用资源数有限，线程之间存在竞争。
+ * <p>
+ * 指定日志目录时使用预写日志，可观察组提交下吞吐量随线程数的变化。
+ * <p>
+ * 用法：java ConcurrentBankerBenchmark [资源种类数] [每轮测试秒数] [日志目录]
+ *
+ * @author agent
+ * @date 2026-10-19 08:22:13
+ */
+public class ConcurrentBankerBenchmark {
+    public static void main(String[] args) throws Exception {
+        int resourceTypes = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        Path journalDirectory = args.length > 2 ? Paths.get(args[2]) : null;
+        int maxThreads = Runtime.getRuntime().availableProcessors() * 2;
+
+        System.out.println("线程数\t吞吐量（次/秒）\t平均等待超时次数");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            runRound(threads, resourceTypes, seconds, journalDirectory);
+        }
+    } // end main()
+
+    /**
+     * 运行一轮基准测试
+     *
+     * @param threads          线程数
+     * @param resourceTypes    资源种类数
+     * @param seconds          测试秒数
+     * @param journalDirectory 日志目录（应为空目录，为 null 时不使用日志）
+     */
+    private static void runRound(int threads, int resourceTypes, int seconds, Path journalDirectory) throws Exception {
+        int[] available = new int[resourceTypes];
+        int[][] max = new int[threads][resourceTypes];
+        int[][] allocation = new int[threads][resourceTypes];
+        Arrays.fill(available, threads * 2 + 2); // 多线程时资源总量不足以同时满足所有进程的最大需求
+        for (int[] row : max) {
+            Arrays.fill(row, 4);
+        }
+
+        ConcurrentBankerManager manager = journalDirectory == null
+                ? new ConcurrentBankerManager(available, max, allocation)
+                : new ConcurrentBankerManager(BankerJournal.open(journalDirectory.resolve("threads-" + threads),
+                new BankerAlgorithm(available, max, allocation)));
+        LongAdder operations = new LongAdder(), timeouts = new LongAdder();
+        long endNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int pid = t;
+            futures.add(executor.submit(() -> {
+                SplittableRandom random = new SplittableRandom(pid);
+                int[] request = new int[resourceTypes];
+                while (System.nanoTime() < endNanos) {
+                    for (int j = 0; j < resourceTypes; j++) {
+                        request[j] = random.nextInt(5);
+                    }
+                    if (manager.acquire(pid, request, 10, TimeUnit.MILLISECONDS)) {
+                        manager.release(pid, request);
+                        operations.increment();
+                    } else {
+                        timeouts.increment();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        manager.close();
+
+        System.out.printf("%d\t%.0f\t\t%.1f%n", threads, operations.sum() / (double) seconds,
+                timeouts.sum() / (double) threads);
+    } // end runRound()
+} // end class ConcurrentBankerBenchmark
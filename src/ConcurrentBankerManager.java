@@ -0,0 +1,257 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 线程安全的资源管理器类（以银行家算法避免死锁）
+ * <p>
+ * 读取可用资源使用 StampedLock 乐观读，不阻塞也不被阻塞；分配与释放在写锁下串行提交。
+ * 请求暂时无法安全满足时，acquire 阻塞等待直到有进程释放资源后重试。
+ * 管理器持有资源矩阵的副本，外部对原数组的修改不会影响管理器。
+ * <p>
+ * 使用预写日志时，分配与释放在写锁内追加日志记录，在锁外等待记录持久化后才返回，
+ * 多个线程的记录由日志的刷盘线程合并为一次刷盘，锁的持有时间不包含磁盘写入。
+ *
+ * @author agent
+ * @date 2026-10-19 08:22:13
+ */
+public class ConcurrentBankerManager implements AutoCloseable {
+    private final BankerAlgorithm banker; // 银行家算法器（只在锁内访问）
+    private final BankerJournal journal; // 预写日志（为 null 时不记录）
+    private final StampedLock lock = new StampedLock(); // 状态锁
+    private final Object releaseMonitor = new Object(); // 资源释放通知
+    private long releaseVersion; // 资源释放次数（由 releaseMonitor 保护）
+
+    public ConcurrentBankerManager(int[] available, int[][] max, int[][] allocation) {
+        this.banker = new BankerAlgorithm(Arrays.copyOf(available, available.length), max, allocation); // 矩阵在构造时复制
+        this.journal = null;
+    } // end ConcurrentBankerManager()
+
+    /**
+     * 使用预写日志恢复得到（或初始）的系统状态创建管理器，之后的分配与释放都会写入日志
+     *
+     * @param journal 预写日志
+     */
+    public ConcurrentBankerManager(BankerJournal journal) {
+        this.banker = journal.getBanker();
+        this.journal = journal;
+    } // end ConcurrentBankerManager()
+
+    /**
+     * 获取系统可用资源数快照（乐观读，失败时退化为读锁）
+     *
+     * @return 可用资源数快照
+     */
+    public int[] availableSnapshot() {
+        long stamp = lock.tryOptimisticRead();
+        int[] snapshot = banker.getAvailable().clone();
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                snapshot = banker.getAvailable().clone();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return snapshot;
+    } // end availableSnapshot()
+
+    /**
+     * 尝试为进程分配资源（不阻塞）
+     *
+     * @param processIndex 进程下标
+     * @param request      请求向量
+     * @return 是否分配成功
+     */
+    public boolean tryAcquire(int processIndex, int[] request) {
+        /* 乐观预检：请求超过可用资源数时必然被拒绝，无需获取写锁 */
+        long stamp = lock.tryOptimisticRead();
+        boolean fits = fitsWithin(request, banker.getAvailable());
+        if (lock.validate(stamp) && !fits) {
+            return false;
+        }
+
+        long sequence;
+        stamp = lock.writeLock();
+        try {
+            if (!banker.allocate(processIndex, request)) {
+                return false;
+            }
+            sequence = appendJournal(BankerJournal.GRANT, processIndex, request);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        awaitDurable(sequence); // 在锁外等待，期间其他线程可以继续分配并加入同一批刷盘
+        return true;
+    } // end tryAcquire()
+
+    /**
+     * 为进程分配资源，暂时无法安全分配时阻塞等待
+     *
+     * @param processIndex 进程下标
+     * @param request      请求向量
+     * @throws InterruptedException 等待时被中断
+     */
+    public void acquire(int processIndex, int[] request) throws InterruptedException {
+        acquire(processIndex, request, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    } // end acquire()
+
+    /**
+     * 为进程分配资源，暂时无法安全分配时阻塞等待，最多等待指定时间
+     *
+     * @param processIndex 进程下标
+     * @param request      请求向量
+     * @param timeout      最长等待时间
+     * @param unit         时间单位
+     * @return 是否分配成功（超时返回 false）
+     * @throws InterruptedException 等待时被中断
+     */
+    public boolean acquire(int processIndex, int[] request, long timeout, TimeUnit unit) throws InterruptedException {
+        checkSatisfiable(processIndex, request);
+        long deadline = System.nanoTime() + Math.min(unit.toNanos(timeout), Long.MAX_VALUE / 2);
+
+        while (true) {
+            long version;
+            synchronized (releaseMonitor) {
+                version = releaseVersion; // 先记录版本再尝试，避免错过尝试期间发生的释放
+            }
+            if (tryAcquire(processIndex, request)) {
+                return true;
+            }
+
+            synchronized (releaseMonitor) {
+                while (releaseVersion == version) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(releaseMonitor, remaining);
+                }
+            }
+        }
+    } // end acquire()
+
+    /**
+     * 进程释放资源，并唤醒等待资源的线程
+     *
+     * @param processIndex 进程下标
+     * @param release      释放向量
+     */
+    public void release(int processIndex, int[] release) {
+        long sequence;
+        long stamp = lock.writeLock();
+        try {
+            if (!banker.release(processIndex, release)) {
+                throw new IllegalArgumentException("释放的资源超过了进程已占用资源数");
+            }
+            sequence = appendJournal(BankerJournal.RELEASE, processIndex, release);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        synchronized (releaseMonitor) {
+            releaseVersion++;
+            releaseMonitor.notifyAll();
+        }
+        awaitDurable(sequence);
+    } // end release()
+
+    /**
+     * 追加日志记录（写锁内调用），记录数达到快照间隔时切换日志并生成快照
+     *
+     * @return 记录序号，不使用日志时为0
+     */
+    private long appendJournal(byte type, int processIndex, int[] vector) {
+        if (journal == null) {
+            return 0;
+        }
+        long sequence = journal.append(type, processIndex, vector);
+        if (journal.isSnapshotDue()) {
+            journal.rotate(banker.fork()); // 写时复制的副本只复制页表，快照由日志的后台线程在锁外序列化
+        }
+        return sequence;
+    } // end appendJournal()
+
+    /**
+     * 等待日志记录持久化
+     *
+     * @throws UncheckedIOException 日志写入失败（内存中的状态已修改，但崩溃后无法恢复该修改）
+     */
+    private void awaitDurable(long sequence) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.awaitDurable(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    } // end awaitDurable()
+
+    /**
+     * 获取最近一次后台快照写入失败的原因（不使用日志或最近一次快照成功时为 null）
+     */
+    public IOException getSnapshotFailure() {
+        return journal == null ? null : journal.getSnapshotFailure();
+    } // end getSnapshotFailure()
+
+    /**
+     * 关闭管理器（写入剩余的日志记录）
+     */
+    @Override
+    public void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    } // end close()
+
+    /**
+     * 检查请求是否可能被满足（请求超过进程还需资源数时永远无法满足，不应等待）
+     */
+    private void checkSatisfiable(int processIndex, int[] request) {
+        long stamp = lock.readLock();
+        try {
+            if (processIndex < 0 || processIndex >= banker.getProcessCount() || banker.isRemoved(processIndex)
+                    || request.length != banker.getAvailable().length) {
+                throw new IllegalArgumentException("进程下标或请求向量长度不正确");
+            }
+            for (int r : request) {
+                if (r < 0) {
+                    throw new IllegalArgumentException("请求向量不能包含负数");
+                }
+            }
+            if (!fitsWithin(request, banker.getNeedRow(processIndex))) {
+                throw new IllegalArgumentException("请求超出了进程的还需资源数");
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    } // end checkSatisfiable()
+
+    /**
+     * 获取系统状态文本（读锁）
+     */
+    @Override
+    public String toString() {
+        long stamp = lock.readLock();
+        try {
+            return banker.toString();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    } // end toString()
+
+    private static boolean fitsWithin(int[] request, int[] limit) {
+        if (request.length != limit.length) {
+            return false;
+        }
+        for (int i = 0; i < request.length; i++) {
+            if (request[i] > limit[i]) {
+                return false;
+            }
+        }
+        return true;
+    } // end fitsWithin()
+} // end class ConcurrentBankerManager
@@ -2,6 +2,7 @@ import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.ItemEvent;
+import java.text.ParseException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.ArrayList;
@@ -262,6 +263,13 @@ public class ControlGUI extends JFrame {
      * 开始进程调度
      */
     private void runSelectedScheduler() {
+        /* 声明了资源需求的进程在系统资源的副本上申请资源，调度不修改银行家算法面板的系统状态 */
+        try {
+            scheduler.setBanker(banker == null ? null : banker.fork());
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(null, ex.getMessage() + "！！！", "调度警告", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
         setButtonsEnabled(schedulerPanel, false); // 在进行进程调度时，禁止调度面板的所有操作
 
         printProcessInfo();
@@ -546,30 +554,32 @@ public class ControlGUI extends JFrame {
                     selectedColumn = resourceTable.getSelectedColumn();
                     String value = (String) getCellEditorValue();
 
-                    int[] newValues = Arrays.stream(value.replaceAll("[\\[\\]]", "").split(", "))
-                            .mapToInt(Integer::parseInt)
-                            .toArray(); // 解析新值为整数数组
+                    int[] newValues; // 解析新值为整数数组
+                    try {
+                        newValues = ResourceParser.parseResourceArray(value);
+                    } catch (ParseException ex) {
+                        JOptionPane.showMessageDialog(null, "应为>=0的整数序列！！！\n" + ex.getMessage(),
+                                "格式错误", JOptionPane.ERROR_MESSAGE);
+                        return false;
+                    }
+                    if (newValues.length != banker.getAvailable().length) {
+                        JOptionPane.showMessageDialog(null, "整数序列的长度应为资源种类数 " + banker.getAvailable().length + "！！！",
+                                "格式错误", JOptionPane.ERROR_MESSAGE);
+                        return false;
+                    }
 
                     if (selectedColumn == 1) {
-                        int[][] tempMax = banker.getMax();
+                        int[][] tempMax = banker.getMax(); // 副本，只用于验证
                         tempMax[selectedRow] = newValues;
-                        if (!value.matches("^\\[\\d+(,\\s*\\d+)*\\]$")) {
-                            JOptionPane.showMessageDialog(null, "Max 应为整数序列！！！\n（表格单元格中，逗号后必须有空格）",
-                                    "格式错误", JOptionPane.ERROR_MESSAGE);
-                            return false;
-                        } else if (setResourceDialog.isAllocationWithinMax(tempMax, banker.getAllocation())) {
+                        if (setResourceDialog.isAllocationWithinMax(tempMax, banker.getAllocation())) {
                             JOptionPane.showMessageDialog(null, "进程已占用资源数超过了进程最大需求量！！！",
                                     "分配超限", JOptionPane.ERROR_MESSAGE);
                             return false;
                         }
                     } else if (selectedColumn == 2) {
-                        int[][] tempAllocation = banker.getAllocation();
+                        int[][] tempAllocation = banker.getAllocation(); // 副本，只用于验证
                         tempAllocation[selectedRow] = newValues;
-                        if (!value.matches("^\\[\\d+(,\\s*\\d+)*\\]$")) {
-                            JOptionPane.showMessageDialog(null, "Allocation 应为整数序列！！！\n"
-                                    + "（表格单元格中，逗号后必须有空格）", "格式错误", JOptionPane.ERROR_MESSAGE);
-                            return false;
-                        } else if (setResourceDialog.isAllocationWithinMax(banker.getMax(), tempAllocation)) {
+                        if (setResourceDialog.isAllocationWithinMax(banker.getMax(), tempAllocation)) {
                             JOptionPane.showMessageDialog(null, "进程已占用资源数超过了进程最大需求量！！",
                                     "分配超限", JOptionPane.WARNING_MESSAGE);
                             return false;
@@ -577,8 +587,8 @@ public class ControlGUI extends JFrame {
                     }
                     return super.stopCellEditing(); // 接受编辑
                 } catch (Exception ex) {
-                    JOptionPane.showMessageDialog(null, "输入不规范，请注意整数>=0、符号、空格等问题！！！\n"
-                            + "（表格单元格中，逗号后必须有空格）", "格式错误", JOptionPane.ERROR_MESSAGE);
+                    JOptionPane.showMessageDialog(null, "输入不规范，请注意整数>=0、符号等问题！！！",
+                            "格式错误", JOptionPane.ERROR_MESSAGE);
                     return false;
                 }
             } // end stopCellEditing()
@@ -679,16 +689,19 @@ public class ControlGUI extends JFrame {
         int selectedColumn = resourceTable.getSelectedColumn();
         String newValue = (String) resourceTableModel.getValueAt(selectedRow, selectedColumn);
 
-        int[] newValues = Arrays.stream(newValue.replaceAll("[\\[\\]]", "").split(", "))
-                .mapToInt(Integer::parseInt)
-                .toArray(); // 解析新值为整数数组
+        int[] newValues;
+        try {
+            newValues = ResourceParser.parseResourceArray(newValue); // 解析新值为整数数组（已在单元格编辑器中验证）
+        } catch (ParseException ex) {
+            return;
+        }
 
         switch (selectedColumn) {
             case 1: // "Max"列
-                banker.getMax()[selectedRow] = newValues;
+                banker.setMaxRow(selectedRow, newValues);
                 break;
             case 2: // "Allocation"列
-                banker.getAllocation()[selectedRow] = newValues;
+                banker.setAllocationRow(selectedRow, newValues);
                 break;
             case 4: // "Available"列
                 banker.setAvailable(newValues);
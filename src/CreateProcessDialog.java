@@ -1,5 +1,6 @@
 import javax.swing.*;
 import java.awt.*;
+import java.text.ParseException;
 
 /**
  * 创建进程对话框类
@@ -9,6 +10,7 @@ import java.awt.*;
  */
 public class CreateProcessDialog extends JDialog {
     private JTextField processNameField, priorityField, arrivalTimeField, requiredRuntimeField; // 进程信息
+    private JTextField maxClaimField, resourcePlanField; // 资源需求（可选）
     private JButton createButton, cancelButton; // 功能按钮
     private PCB process; // 进程
     private Scheduler scheduler; // 进程调度器
@@ -18,9 +20,9 @@ public class CreateProcessDialog extends JDialog {
         super(owner, "创建进程（输入框有悬浮提示）", true);
         this.controlGUI = (ControlGUI) owner;
         this.scheduler = scheduler;
-        setSize(330, 190);
+        setSize(380, 260);
         setLocationRelativeTo(null);
-        setLayout(new GridLayout(5, 2));
+        setLayout(new GridLayout(7, 2));
 
         add(new JLabel("进程名："));
         processNameField = new JTextField();
@@ -45,6 +47,16 @@ public class CreateProcessDialog extends JDialog {
         InputFilter.setFilter(requiredRuntimeField, "[0-9]\\d*"); // 只允许输入>=0的整数
         add(requiredRuntimeField);
 
+        add(new JLabel("最大资源需求（可选）："));
+        maxClaimField = new JTextField();
+        maxClaimField.setToolTipText("例如：[2,1,0]，调度时按系统资源以银行家算法申请资源");
+        add(maxClaimField);
+
+        add(new JLabel("资源申请计划（可选）："));
+        resourcePlanField = new JTextField();
+        resourcePlanField.setToolTipText("每行为 [CPU 时间, 申请向量]，例如：[0,1,0,0],[2,1,1,0]；不填时开始运行前申请全部最大资源需求，运行完成时释放");
+        add(resourcePlanField);
+
         createButton = new JButton("创建");
         createButton.addActionListener(e -> createProcess());
         add(createButton);
@@ -80,15 +92,62 @@ public class CreateProcessDialog extends JDialog {
 
         /* 创建 PCB 实例，并添加到调度器 */
         process = new PCB(name, priority, arrivalTime, requiredRuntime);
-        scheduler.createProcess(process);
+        if (!parseResourceClaim(process)) {
+            return;
+        }
+        try {
+            scheduler.createProcess(process);
+        } catch (IllegalArgumentException ex) { // 最大资源需求不能登记到调度器的银行家算法器
+            JOptionPane.showMessageDialog(this, ex.getMessage() + "！！！", "输入错误", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
 
         /* 清空输入字段以便下一次输入 */
         processNameField.setText("");
         priorityField.setText("");
         arrivalTimeField.setText("");
         requiredRuntimeField.setText("");
+        maxClaimField.setText("");
+        resourcePlanField.setText("");
 
         dispose(); // 关闭对话框
         controlGUI.createProcess(process); // 创建的后端进程数据同步到前端
     } // end createProcess()
+
+    /**
+     * 解析可选的资源需求（申请计划中只有申请，进程运行完成时释放全部资源）
+     *
+     * @param process 进程
+     * @return 是否解析成功（未填写时也返回 true）
+     */
+    private boolean parseResourceClaim(PCB process) {
+        String maxClaimStr = maxClaimField.getText().trim(), planStr = resourcePlanField.getText().trim();
+        if (maxClaimStr.isEmpty()) {
+            if (!planStr.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "填写资源申请计划时必须填写最大资源需求！！！", "输入错误",
+                        JOptionPane.ERROR_MESSAGE);
+                return false;
+            }
+            return true;
+        }
+
+        try {
+            int[] maxClaim = ResourceParser.parseResourceArray(maxClaimStr);
+            int[][] plan;
+            if (planStr.isEmpty()) {
+                plan = new int[1][maxClaim.length + 1]; // 开始运行前申请全部最大资源需求
+                System.arraycopy(maxClaim, 0, plan[0], 1, maxClaim.length);
+            } else {
+                plan = ResourceParser.parseResourceMatrix(planStr);
+            }
+            process.setResourceClaim(maxClaim, plan);
+            return true;
+        } catch (ParseException ex) {
+            JOptionPane.showMessageDialog(this, "资源需求应为>=0的整数数组！\n" + ex.getMessage(), "格式错误",
+                    JOptionPane.ERROR_MESSAGE);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage() + "！！！", "输入错误", JOptionPane.ERROR_MESSAGE);
+        }
+        return false;
+    } // end parseResourceClaim()
 } // end class CreateProcessDialog
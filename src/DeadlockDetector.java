@@ -0,0 +1,99 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 死锁检测类（多实例资源）
+ * <p>
+ * 与银行家算法的安全性检查类似，但使用各进程当前的请求矩阵而非还需资源数：
+ * 从可用资源出发，反复找出请求能被满足的进程并假设其运行完成、归还已占用资源，
+ * 最后仍无法完成的进程即处于死锁。不占用任何资源的进程不会参与死锁，一开始即视为完成。
+ *
+ * @author agent
+ * @date 2026-10-19 08:28:58
+ */
+public class DeadlockDetector {
+    private final int[] available; // 系统可用资源数
+    private final ResourceMatrix allocation; // 各进程已占用资源数
+    private final ResourceMatrix request; // 各进程当前请求（正在等待）的资源数
+
+    public DeadlockDetector(int[] available, ResourceMatrix allocation, ResourceMatrix request) {
+        if (allocation.rows() != request.rows() || allocation.columns() != available.length
+                || request.columns() != available.length) {
+            throw new IllegalArgumentException("可用资源、已占用资源与请求矩阵的规模不一致");
+        }
+        this.available = available;
+        this.allocation = allocation;
+        this.request = request;
+    } // end DeadlockDetector()
+
+    /**
+     * 检测死锁
+     *
+     * @return 处于死锁的进程下标（升序），不存在死锁时为空
+     */
+    public List<Integer> detect() {
+        int n = allocation.rows();
+        int[] work = available.clone();
+        int[] zero = new int[available.length];
+        boolean[] finish = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            finish[i] = allocation.rowLessOrEqual(i, zero); // 不占用资源的进程
+        }
+
+        boolean foundProcess = true;
+        while (foundProcess) {
+            foundProcess = false;
+            for (int i = 0; i < n; i++) {
+                if (!finish[i] && request.rowLessOrEqual(i, work)) {
+                    allocation.addRowTo(i, work);
+                    finish[i] = true;
+                    foundProcess = true;
+                }
+            }
+        }
+
+        List<Integer> deadlocked = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (!finish[i]) {
+                deadlocked.add(i);
+            }
+        }
+        return deadlocked;
+    } // end detect()
+
+    /**
+     * 检测单实例资源的死锁：按进程逐条向等待图加入等待边（进程 i 请求资源 r，而 r 被进程 j 占用时为 i → j），
+     * 每条边在加入时即增量地检测是否成环
+     *
+     * @param allocation 各进程已占用资源数（每种资源只有一个实例）
+     * @param request    各进程当前请求的资源数
+     * @return 发现的等待环（每个环从请求方进程开始），不存在死锁时为空
+     */
+    public static List<List<Integer>> findWaitCycles(ResourceMatrix allocation, ResourceMatrix request) {
+        int n = allocation.rows(), m = allocation.columns();
+        int[] holder = new int[m]; // 各资源的占用进程，-1 表示空闲
+        Arrays.fill(holder, -1);
+        for (int i = 0; i < n; i++) {
+            for (int r = 0; r < m; r++) {
+                if (allocation.get(i, r) > 0) {
+                    holder[r] = i;
+                }
+            }
+        }
+
+        WaitForGraph graph = new WaitForGraph(n);
+        List<List<Integer>> cycles = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            for (int r = 0; r < m; r++) {
+                if (request.get(i, r) > 0 && holder[r] >= 0) {
+                    List<Integer> cycle = graph.addEdge(i, holder[r]);
+                    if (cycle != null) {
+                        cycles.add(cycle);
+                    }
+                }
+            }
+        }
+        return cycles;
+    } // end findWaitCycles()
+} // end class DeadlockDetector
@@ -0,0 +1,179 @@
+import java.util.Arrays;
+
+/**
+ * 稠密资源矩阵类（按行分页存放，页内各行连续）
+ * <p>
+ * 第 i 行第 j 列位于 pages[i / PAGE_ROWS][(i % PAGE_ROWS) × columns + j]，页内逐行扫描时顺序访问内存，
+ * 也不需要为每一行单独分配对象。行数增加时按页扩容。
+ * <p>
+ * fork() 只复制页表，原矩阵与副本共享全部页，之后任何一方写入某页前先复制该页（写时复制），
+ * 因此创建副本是 O(rows / PAGE_ROWS)，修改少数行只复制这些行所在的页。
+ *
+ * @author agent
+ * @date 2026-10-19 08:53:56
+ */
+public class DenseResourceMatrix extends ResourceMatrix {
+    private static final int PAGE_SHIFT = 6;
+    private static final int PAGE_ROWS = 1 << PAGE_SHIFT; // 每页行数
+    private static final int PAGE_MASK = PAGE_ROWS - 1;
+
+    private final int columns; // 列数（资源种类数）
+    private int rows; // 行数（进程数）
+    private int[][] pages; // 行页（每页行优先存放 PAGE_ROWS 行，尚未使用的页为 null）
+    private boolean[] owned; // 各页是否为本矩阵独占（与其他副本共享的页在写入前复制）
+
+    public DenseResourceMatrix(int rows, int columns) {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("矩阵行列数必须>=0");
+        }
+        Math.multiplyExact(rows, columns); // 与按行连续存放时的规模上限保持一致
+        this.rows = rows;
+        this.columns = columns;
+        int pageCount = (rows + PAGE_MASK) >>> PAGE_SHIFT;
+        this.pages = new int[pageCount][];
+        this.owned = new boolean[pageCount];
+        for (int p = 0; p < pageCount; p++) {
+            pages[p] = new int[PAGE_ROWS * columns];
+            owned[p] = true;
+        }
+    } // end DenseResourceMatrix()
+
+    private DenseResourceMatrix(DenseResourceMatrix source) {
+        this.rows = source.rows;
+        this.columns = source.columns;
+        this.pages = source.pages.clone();
+        this.owned = new boolean[pages.length];
+    } // end DenseResourceMatrix()
+
+    @Override
+    public ResourceMatrix fork() {
+        Arrays.fill(owned, false); // 原矩阵此后写入共享页时也要先复制
+        return new DenseResourceMatrix(this);
+    } // end fork()
+
+    @Override
+    public ResourceMatrix copy() {
+        DenseResourceMatrix copy = new DenseResourceMatrix(this);
+        for (int p = 0; p < copy.pages.length; p++) {
+            if (copy.pages[p] != null) {
+                copy.pages[p] = copy.pages[p].clone();
+                copy.owned[p] = true;
+            }
+        }
+        return copy;
+    } // end copy()
+
+    @Override
+    public boolean isSparse() {
+        return false;
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public int get(int i, int j) {
+        return pages[i >>> PAGE_SHIFT][(i & PAGE_MASK) * columns + j];
+    }
+
+    @Override
+    public void set(int i, int j, int value) {
+        writablePage(i)[(i & PAGE_MASK) * columns + j] = value;
+    }
+
+    @Override
+    public int[] row(int i) {
+        int offset = (i & PAGE_MASK) * columns;
+        return Arrays.copyOfRange(pages[i >>> PAGE_SHIFT], offset, offset + columns);
+    } // end row()
+
+    @Override
+    public void setRow(int i, int[] values) {
+        if (values.length != columns) {
+            throw new IllegalArgumentException("行长度应为 " + columns + "，实际为 " + values.length);
+        }
+        System.arraycopy(values, 0, writablePage(i), (i & PAGE_MASK) * columns, columns);
+    } // end setRow()
+
+    @Override
+    public void fillRow(int i, int value) {
+        int offset = (i & PAGE_MASK) * columns;
+        Arrays.fill(writablePage(i), offset, offset + columns, value);
+    } // end fillRow()
+
+    @Override
+    public int addRow() {
+        Math.multiplyExact(rows + 1, columns);
+        int p = rows >>> PAGE_SHIFT;
+        if (p == pages.length) {
+            int capacity = Math.max(4, pages.length * 2);
+            pages = Arrays.copyOf(pages, capacity);
+            owned = Arrays.copyOf(owned, capacity);
+        }
+        if (pages[p] == null) {
+            pages[p] = new int[PAGE_ROWS * columns];
+            owned[p] = true;
+        } else {
+            fillRow(rows, 0);
+        }
+        return rows++;
+    } // end addRow()
+
+    @Override
+    public void addToRow(int i, int[] delta, int sign) {
+        VectorKernels.INSTANCE.addScaled(writablePage(i), (i & PAGE_MASK) * columns, delta, sign, columns);
+    } // end addToRow()
+
+    @Override
+    public boolean rowLessOrEqual(int i, int[] limit) {
+        return VectorKernels.INSTANCE.lessOrEqual(pages[i >>> PAGE_SHIFT], (i & PAGE_MASK) * columns, limit, columns);
+    } // end rowLessOrEqual()
+
+    @Override
+    public void addRowTo(int i, int[] target) {
+        VectorKernels.INSTANCE.addInto(target, pages[i >>> PAGE_SHIFT], (i & PAGE_MASK) * columns, columns);
+    } // end addRowTo()
+
+    @Override
+    public int rowNonZeros(int i, int[] columnsOut, int[] valuesOut) {
+        int[] page = pages[i >>> PAGE_SHIFT];
+        int offset = (i & PAGE_MASK) * columns, count = 0;
+        for (int j = 0; j < columns; j++) {
+            int value = page[offset + j];
+            if (value != 0) {
+                columnsOut[count] = j;
+                valuesOut[count++] = value;
+            }
+        }
+        return count;
+    } // end rowNonZeros()
+
+    /**
+     * 获取第 i 行所在的页，用于写入（该页与其他副本共享时先复制）
+     */
+    private int[] writablePage(int i) {
+        int p = i >>> PAGE_SHIFT;
+        if (!owned[p]) {
+            pages[p] = pages[p].clone();
+            owned[p] = true;
+        }
+        return pages[p];
+    } // end writablePage()
+
+    @Override
+    public int[] toFlatArray() {
+        int[] flat = new int[rows * columns];
+        for (int start = 0; start < rows; start += PAGE_ROWS) {
+            int count = Math.min(PAGE_ROWS, rows - start);
+            System.arraycopy(pages[start >>> PAGE_SHIFT], 0, flat, start * columns, count * columns);
+        }
+        return flat;
+    } // end toFlatArray()
+} // end class DenseResourceMatrix
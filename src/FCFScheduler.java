@@ -12,6 +12,7 @@ public class FCFScheduler extends Scheduler {
 
     @Override
     public void createProcess(PCB process) {
+        registerResources(process); // 先登记，资源需求不能登记时不加入任何队列
         readyQueue.offer(process);
         arrivalQueue.offer(process);
     } // end createProcess()
@@ -20,37 +21,52 @@ public class FCFScheduler extends Scheduler {
     public void killProcess(PCB process) {
         readyQueue.remove(process);
         arrivalQueue.remove(process);
+        waitQueue.remove(process);
+        releaseResources(process);
     } // end killProcess()
 
+    @Override
+    void requeue(PCB process) {
+        arrivalQueue.offer(process);
+    } // end requeue()
+
     @Override
     public String schedule() {
         StringBuilder result = new StringBuilder();
+        drainSubmissions(result); // 在调度边界批量接收其他线程提交的进程
+
+        /* 只分派已到达的进程；不能安全获得资源的进程移入等待队列，继续选择下一个进程 */
+        PCB next = null;
+        while (next == null && !arrivalQueue.isEmpty() && arrivalQueue.peek().getArrivalTime() <= time) {
+            PCB candidate = arrivalQueue.poll();
+            if (acquirePlannedResources(candidate)) {
+                next = candidate;
+            }
+        }
 
-        if (!arrivalQueue.isEmpty()) {
-            currentProcess = arrivalQueue.poll();
+        if (next != null) {
+            currentProcess = next;
             if (currentProcess.getRequiredRuntime() <= 0) { // 处理进程一开始的需要运行时间为0
-                currentProcess.setState('F');
-                finishedProcesses.add(currentProcess);
+                finishProcess(currentProcess);
             } else {
                 currentProcess.setState('E'); // 设为执行状态
                 result.append("运行进程：").append(currentProcess.getName()).append("\n");
                 result.append(displaySchedulingStatus(arrivalQueue)).append("\n");
 
                 /* 模拟执行一个时间片 */
-                currentProcess.setUsedCPUTime(currentProcess.getUsedCPUTime() + 1);
+                executeSlice(currentProcess);
                 if (currentProcess.getUsedCPUTime() >= currentProcess.getRequiredRuntime()) {
-                    currentProcess.setState('F');
-                    finishedProcesses.add(currentProcess);
+                    finishProcess(currentProcess);
                 } else {
                     currentProcess.setState('R');
                     arrivalQueue.offer(currentProcess); // 优先数不变，再次加入就绪队列
                 }
             }
+        } else if (!arrivalQueue.isEmpty()) { // 队首进程尚未到达，CPU 空闲一个时间单位（与 HPF 相同，以当前进程不为 null 表示调度未结束）
+            currentProcess = arrivalQueue.peek();
+            time++;
         } else { // 进程调度结束，立即将数据重置，以便下一次重新调度
-            result.append("运行进程：\n");
-            result.append(displaySchedulingStatus(arrivalQueue)).append("\n");
-            result.append("【进程调度结束】\n");
-            resetSchedulingStatus(arrivalQueue);
+            result.append(endScheduling(arrivalQueue));
         }
 
         return result.toString();
@@ -7,12 +7,23 @@ import java.util.*;
  * @date 2024-02-03 16:52:40
  */
 public class HPFScheduler extends Scheduler {
-    private PriorityQueue<PCB> priorityQueue = new PriorityQueue<>(
-            Comparator.comparingInt(p -> -p.getPriority())); // 优先数队列（按优先数倒序排列）
+    private final AgingPolicy agingPolicy; // 老化与衰减策略
+    private final PriorityQueue<PCB> priorityQueue; // 优先数队列（按有效优先数倒序排列）
+
+    public HPFScheduler() {
+        this(AgingPolicy.DEFAULT);
+    } // end HPFScheduler()
+
+    public HPFScheduler(AgingPolicy agingPolicy) {
+        this.agingPolicy = agingPolicy;
+        /* 排序键与当前时间无关，老化时无需对队列中的进程重新排序 */
+        this.priorityQueue = new PriorityQueue<>(Comparator.comparingLong(p -> -agingPolicy.agingKey(p)));
+    } // end HPFScheduler()
 
     @Override
     public void createProcess(PCB process) {
-        priorityBackup.offer(process.getPriority());
+        registerResources(process); // 先登记，资源需求不能登记时不加入任何队列
+        process.setReadyTime(Math.max(time, process.getArrivalTime())); // 到达之后才开始老化
         readyQueue.offer(process);
         priorityQueue.offer(process);
     } // end createProcess()
@@ -21,44 +32,66 @@ public class HPFScheduler extends Scheduler {
     public void killProcess(PCB process) {
         readyQueue.remove(process);
         priorityQueue.remove(process);
+        waitQueue.remove(process);
+        releaseResources(process);
     } // end killProcess()
 
+    @Override
+    void requeue(PCB process) {
+        process.setReadyTime(time); // 等待资源期间不老化
+        priorityQueue.offer(process);
+    } // end requeue()
+
     @Override
     public String schedule() {
         StringBuilder result = new StringBuilder();
+        drainSubmissions(result); // 在调度边界批量接收其他线程提交的进程
 
-        /* 每次调度都备份一次优先数 */
-        for (PCB process : readyQueue) {
-            priorityBackup.offer(process.getPriority());
+        /* 每轮调度开始时备份一次优先数 */
+        if (time == 0) {
+            priorityBackup.clear();
+            for (PCB process : readyQueue) {
+                priorityBackup.offer(process.getPriority());
+            }
         }
 
         if (!priorityQueue.isEmpty()) {
-            /* HPF 调度也要考虑到达时间 */
-            for (PCB process : priorityQueue) {
-                if (process.getArrivalTime() <= time) {
-                    currentProcess = process; // 只有当进程到达且优先数最高时，才可为进程分配 CPU
+            /* HPF 调度也要考虑到达时间；不能安全获得资源的进程移入等待队列，继续选择下一个进程 */
+            currentProcess = null;
+            while (currentProcess == null) {
+                PCB candidate = null;
+                for (PCB process : priorityQueue) {
+                    if (process.getArrivalTime() <= time) {
+                        candidate = process; // 只有当进程到达且优先数最高时，才可为进程分配 CPU
+                        break;
+                    }
+                }
+                if (candidate == null) {
                     break;
                 }
+                priorityQueue.remove(candidate);
+                if (acquirePlannedResources(candidate)) {
+                    currentProcess = candidate;
+                }
             }
 
             if (currentProcess != null) {
-                priorityQueue.remove(currentProcess);
+                currentProcess.setPriority(agingPolicy.effectivePriority(currentProcess, time)); // 结算等待期间的老化增量
                 if (currentProcess.getRequiredRuntime() <= 0) { // 处理进程一开始的需要运行时间为0
-                    currentProcess.setState('F');
-                    finishedProcesses.add(currentProcess);
+                    finishProcess(currentProcess);
                 } else {
                     currentProcess.setState('E');
                     result.append("运行进程：").append(currentProcess.getName()).append("\n");
                     result.append(displaySchedulingStatus(priorityQueue)).append("\n");
 
                     /* 模拟执行一个时间片 */
-                    currentProcess.setUsedCPUTime(currentProcess.getUsedCPUTime() + 1);
+                    executeSlice(currentProcess);
                     if (currentProcess.getUsedCPUTime() >= currentProcess.getRequiredRuntime()) {
-                        currentProcess.setState('F');
-                        finishedProcesses.add(currentProcess);
+                        finishProcess(currentProcess);
                     } else {
-                        currentProcess.setPriority(currentProcess.getPriority() - 1); // 优先级降低
+                        currentProcess.setPriority(agingPolicy.decay(currentProcess.getPriority())); // 优先级衰减
                         currentProcess.setState('R'); // 设为就绪状态
+                        currentProcess.setReadyTime(time); // 从时间片结束时刻起重新开始老化
                         priorityQueue.offer(currentProcess); // 再次加入优先数队列
                     }
                 }
@@ -67,16 +100,20 @@ public class HPFScheduler extends Scheduler {
              * 对于 HPF，若未找到当前能够运行进程，则默认为优先数队列队首元素
              * （因为本系统是根据当前是否有能够运行进程来判断进程调度是否结束）
              */
-            else currentProcess = priorityQueue.peek();
-
-            time++;
+            else if (!priorityQueue.isEmpty()) {
+                currentProcess = priorityQueue.peek();
+                time++; // CPU 空闲一个时间单位
+            } else { // 剩余进程都在等待资源
+                result.append(endScheduling(priorityQueue));
+            }
         } else { // 进程调度结束，立即将数据重置，以便下一次重新调度
-            result.append("运行进程：\n");
-            result.append(displaySchedulingStatus(priorityQueue)).append("\n");
-            result.append("【进程调度结束】\n");
-            resetSchedulingStatus(priorityQueue);
+            result.append(endScheduling(priorityQueue));
         }
 
         return result.toString();
     } // end schedule()
+
+    public AgingPolicy getAgingPolicy() {
+        return agingPolicy;
+    }
 } // end class HPFScheduler
@@ -0,0 +1,107 @@
+import java.util.Locale;
+
+/**
+ * 指标汇总统计类（均值、标准差、置信区间以及最值所在的模拟编号）
+ * <p>
+ * 使用 Chan 并行合并公式，可将各线程的局部统计结果按固定顺序合并。
+ *
+ * @author agent
+ * @date 2026-10-19 08:19:02
+ */
+public class MetricSummary {
+    private static final double Z_95 = 1.959963984540054; // 95% 置信水平的正态分位数
+
+    private long count; // 样本数
+    private double mean; // 均值
+    private double m2; // 离差平方和
+    private double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY; // 最小值、最大值
+    private long minRun = -1, maxRun = -1; // 最小值、最大值所在的模拟编号
+
+    /**
+     * 加入一个样本
+     *
+     * @param value 样本值
+     * @param run   模拟编号
+     */
+    public void add(double value, long run) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        if (value < min || (value == min && run < minRun)) {
+            min = value;
+            minRun = run;
+        }
+        if (value > max || (value == max && run < maxRun)) {
+            max = value;
+            maxRun = run;
+        }
+    } // end add()
+
+    /**
+     * 合并另一组统计结果
+     *
+     * @param other 另一组统计结果
+     */
+    public void merge(MetricSummary other) {
+        if (other.count == 0) {
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        m2 += other.m2 + delta * delta * count * other.count / total;
+        mean += delta * other.count / total;
+        count = total;
+        if (other.min < min || (other.min == min && other.minRun < minRun)) {
+            min = other.min;
+            minRun = other.minRun;
+        }
+        if (other.max > max || (other.max == max && other.maxRun < maxRun)) {
+            max = other.max;
+            maxRun = other.maxRun;
+        }
+    } // end merge()
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getStdDev() {
+        return count > 1 ? Math.sqrt(m2 / (count - 1)) : 0;
+    }
+
+    /**
+     * 均值 95% 置信区间的半宽（正态近似）
+     *
+     * @return 置信区间半宽
+     */
+    public double getHalfWidth95() {
+        return count > 1 ? Z_95 * getStdDev() / Math.sqrt(count) : 0;
+    } // end getHalfWidth95()
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public long getMinRun() {
+        return minRun;
+    }
+
+    public long getMaxRun() {
+        return maxRun;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%.4f ± %.4f (95%% CI), sd=%.4f, min=%.4f (#%d), max=%.4f (#%d)",
+                mean, getHalfWidth95(), getStdDev(), min, minRun, max, maxRun);
+    } // end toString()
+} // end class MetricSummary
@@ -0,0 +1,255 @@
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * 蒙特卡洛调度模拟类
+ * <p>
+ * 对负载施加到达时间抖动和运行时间噪声，生成大量随机变体并在 ForkJoin 线程池中并行运行。
+ * 每次模拟的随机数只由 (种子, 模拟编号) 决定，任务划分与合并顺序固定，
+ * 因此结果与线程数、执行顺序无关，任意一次模拟都可以单独复现。
+ * <p>
+ * 用法：java MonteCarloSimulation 负载文件 [-a FCFS|HPF] [-n 模拟次数] [-s 种子] [-j 到达时间抖动]
+ * [-e 运行时间噪声比例] [-q 时间片] [-r 老化速率] [-x 复现的模拟编号]
+ *
+ * @author agent
+ * @date 2026-10-19 08:19:02
+ */
+public class MonteCarloSimulation {
+    private static final int SPLIT_THRESHOLD = 64; // 任务不再拆分的模拟次数
+    private static final String USAGE = "用法：java MonteCarloSimulation 负载文件 [-a FCFS|HPF] [-n 模拟次数] [-s 种子] "
+            + "[-j 到达时间抖动] [-e 运行时间噪声比例] [-q 时间片] [-r 老化速率] [-x 复现的模拟编号]";
+    private static final List<String> OPTIONS = Arrays.asList("-a", "-n", "-s", "-j", "-e", "-q", "-r", "-x"); // 可用选项
+
+    private final List<PCB> workload; // 负载进程模板（只读）
+    private final Supplier<Scheduler> schedulerFactory; // 调度器工厂（每次模拟新建调度器）
+    private final int arrivalJitter; // 到达时间抖动幅度（±）
+    private final double runtimeNoise; // 运行时间噪声比例（±）
+
+    /**
+     * 汇总结果
+     */
+    public static final class Result {
+        private final MetricSummary turnaround = new MetricSummary(); // 平均周转时间
+        private final MetricSummary waiting = new MetricSummary(); // 平均等待时间
+        private final MetricSummary makespan = new MetricSummary(); // 完成时间
+        private final MetricSummary throughput = new MetricSummary(); // 吞吐量
+
+        void add(SchedulingMetrics metrics, long run) {
+            turnaround.add(metrics.getAvgTurnaround(), run);
+            waiting.add(metrics.getAvgWaiting(), run);
+            makespan.add(metrics.getMakespan(), run);
+            throughput.add(metrics.getThroughput(), run);
+        } // end add()
+
+        void merge(Result other) {
+            turnaround.merge(other.turnaround);
+            waiting.merge(other.waiting);
+            makespan.merge(other.makespan);
+            throughput.merge(other.throughput);
+        } // end merge()
+
+        public MetricSummary getTurnaround() {
+            return turnaround;
+        }
+
+        public MetricSummary getWaiting() {
+            return waiting;
+        }
+
+        public MetricSummary getMakespan() {
+            return makespan;
+        }
+
+        public MetricSummary getThroughput() {
+            return throughput;
+        }
+
+        @Override
+        public String toString() {
+            return "模拟次数：" + turnaround.getCount() + "\n"
+                    + "平均周转时间：" + turnaround + "\n"
+                    + "平均等待时间：" + waiting + "\n"
+                    + "完成时间：" + makespan + "\n"
+                    + "吞吐量：" + throughput;
+        } // end toString()
+    } // end class Result
+
+    /**
+     * 模拟区间任务（每个任务持有自己的局部统计结果，按固定的二分方式拆分与合并）
+     */
+    private final class RunRangeTask extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        private final long seed; // 种子
+        private final long from, to; // 模拟编号区间 [from, to)
+
+        RunRangeTask(long seed, long from, long to) {
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        } // end RunRangeTask()
+
+        @Override
+        protected Result compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                Result result = new Result();
+                for (long run = from; run < to; run++) {
+                    result.add(runVariant(seed, run), run);
+                }
+                return result;
+            }
+
+            long mid = (from + to) >>> 1;
+            RunRangeTask left = new RunRangeTask(seed, from, mid);
+            left.fork();
+            Result right = new RunRangeTask(seed, mid, to).compute();
+            Result result = left.join();
+            result.merge(right); // 总是左并右，合并顺序与执行线程无关
+            return result;
+        } // end compute()
+    } // end class RunRangeTask
+
+    public MonteCarloSimulation(List<PCB> workload, Supplier<Scheduler> schedulerFactory,
+                                int arrivalJitter, double runtimeNoise) {
+        if (arrivalJitter < 0 || runtimeNoise < 0) {
+            throw new IllegalArgumentException("抖动幅度和噪声比例必须>=0");
+        }
+        this.workload = new ArrayList<>(workload);
+        this.schedulerFactory = schedulerFactory;
+        this.arrivalJitter = arrivalJitter;
+        this.runtimeNoise = runtimeNoise;
+    } // end MonteCarloSimulation()
+
+    /**
+     * 并行运行多次模拟并汇总结果
+     *
+     * @param runs 模拟次数
+     * @param seed 种子
+     * @param pool ForkJoin 线程池
+     * @return 汇总结果
+     */
+    public Result run(long runs, long seed, ForkJoinPool pool) {
+        return pool.invoke(new RunRangeTask(seed, 0, runs));
+    } // end run()
+
+    /**
+     * 生成第 run 次模拟的负载变体（只由种子和模拟编号决定）
+     *
+     * @param seed 种子
+     * @param run  模拟编号
+     * @return 负载变体（新建的进程）
+     */
+    public List<PCB> variant(long seed, long run) {
+        SplittableRandom random = new SplittableRandom(mix(seed, run));
+        List<PCB> processes = new ArrayList<>(workload.size());
+        for (PCB template : workload) {
+            PCB process = new PCB(template);
+            if (arrivalJitter > 0) {
+                int jitter = random.nextInt(-arrivalJitter, arrivalJitter + 1);
+                process.setArrivalTime(Math.max(0, template.getArrivalTime() + jitter));
+            }
+            if (runtimeNoise > 0 && template.getRequiredRuntime() > 0) {
+                double factor = 1 + runtimeNoise * (2 * random.nextDouble() - 1);
+                process.setRequiredRuntime(Math.max(1, (int) Math.round(template.getRequiredRuntime() * factor)));
+            }
+            processes.add(process);
+        }
+        return processes;
+    } // end variant()
+
+    /**
+     * 运行（或复现）第 run 次模拟
+     *
+     * @param seed 种子
+     * @param run  模拟编号
+     * @return 调度指标
+     */
+    public SchedulingMetrics runVariant(long seed, long run) {
+        return SchedulingSimulation.run(schedulerFactory.get(), variant(seed, run));
+    } // end runVariant()
+
+    /**
+     * 由种子和模拟编号生成该次模拟的独立种子（SplitMix64 混合）
+     */
+    private static long mix(long seed, long run) {
+        long z = seed + (run + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    } // end mix()
+
+    public static void main(String[] args) {
+        Map<String, String> options;
+        try {
+            options = parseOptions(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        try {
+            List<PCB> workload = WorkloadParser.parseWorkloadFile(Paths.get(args[0]));
+            String algorithm = options.getOrDefault("-a", "HPF");
+            long runs = Long.parseLong(options.getOrDefault("-n", "10000"));
+            long seed = Long.parseLong(options.getOrDefault("-s", "0"));
+            int jitter = Integer.parseInt(options.getOrDefault("-j", "2"));
+            double noise = Double.parseDouble(options.getOrDefault("-e", "0.2"));
+            int quantum = Integer.parseInt(options.getOrDefault("-q", "1"));
+            AgingPolicy agingPolicy = new AgingPolicy(Integer.parseInt(options.getOrDefault("-r", "0")),
+                    AgingPolicy.DecayMode.LINEAR, 1);
+
+            Supplier<Scheduler> factory = () -> {
+                Scheduler scheduler = "FCFS".equalsIgnoreCase(algorithm)
+                        ? new FCFScheduler() : new HPFScheduler(agingPolicy);
+                scheduler.setTimeSlice(quantum);
+                return scheduler;
+            };
+            MonteCarloSimulation simulation = new MonteCarloSimulation(workload, factory, jitter, noise);
+
+            if (options.containsKey("-x")) { // 复现单次模拟
+                long run = Long.parseLong(options.get("-x"));
+                for (PCB process : simulation.variant(seed, run)) {
+                    System.out.println(process);
+                }
+                System.out.println(simulation.runVariant(seed, run));
+            } else {
+                System.out.println(simulation.run(runs, seed, ForkJoinPool.commonPool()));
+            }
+        } catch (Exception e) {
+            System.err.println("蒙特卡洛模拟失败：" + e.getMessage());
+            System.exit(1);
+        }
+    } // end main()
+
+    /**
+     * 解析命令行参数：第一个参数为负载文件，之后为“-选项 值”形式的选项
+     *
+     * @param args 命令行参数
+     * @return 选项表
+     * @throws IllegalArgumentException 缺少负载文件、未知选项、选项缺少取值或未知的调度算法
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        if (args.length < 1 || args[0].startsWith("-")) {
+            throw new IllegalArgumentException("缺少负载文件参数");
+        }
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            String option = args[i];
+            if (!OPTIONS.contains(option)) {
+                throw new IllegalArgumentException("未知参数：" + option);
+            } else if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("参数 " + option + " 缺少取值");
+            }
+            options.put(option, args[++i]);
+        }
+        String algorithm = options.getOrDefault("-a", "HPF");
+        if (!"FCFS".equalsIgnoreCase(algorithm) && !"HPF".equalsIgnoreCase(algorithm)) {
+            throw new IllegalArgumentException("未知的调度算法：" + algorithm);
+        }
+        return options;
+    } // end parseOptions()
+} // end class MonteCarloSimulation
@@ -1,3 +1,5 @@
+import java.util.Arrays;
+
 /**
  * 进程控制块（PCB）类
  *
@@ -11,6 +13,12 @@ public class PCB {
     private int requiredRuntime; // 需要运行时间
     private int usedCPUTime; // 已用 CPU 时间
     private char state; // 进程状态，E: 执行，R: 就绪，W: 等待，F: 完成
+    private int readyTime; // 进入就绪队列时间（用于 HPF 老化）
+    private Runnable task; // 实际工作负载（每个时间单位执行一次，为 null 时仅模拟）
+    private int[] maxClaim; // 最大资源需求（为 null 时不使用资源）
+    private int[][] resourcePlan = new int[0][]; // 资源计划：每行为 [CPU 时间, 各类资源的变化量...]，正数为申请、负数为释放
+    private int planCursor; // 下一个未执行的资源计划步骤
+    private int bankerIndex = -1; // 在银行家算法器中的进程下标（-1 表示未登记）
 
     public PCB(String name, int priority, int arrivalTime, int requiredRuntime) {
         this.name = name;
@@ -19,6 +27,19 @@ public class PCB {
         this.requiredRuntime = requiredRuntime;
         this.usedCPUTime = 0;
         this.state = 'R'; // 初始状态设为就绪
+        this.readyTime = 0;
+    } // end PCB()
+
+    /**
+     * 复制进程的初始信息和工作负载（不含运行状态）
+     *
+     * @param other 被复制进程
+     */
+    public PCB(PCB other) {
+        this(other.name, other.priority, other.arrivalTime, other.requiredRuntime);
+        this.task = other.task;
+        this.maxClaim = other.maxClaim;
+        this.resourcePlan = other.resourcePlan;
     } // end PCB()
 
     public String getName() {
@@ -69,6 +90,108 @@ public class PCB {
         this.state = state;
     }
 
+    public int getReadyTime() {
+        return readyTime;
+    }
+
+    public void setReadyTime(int readyTime) {
+        this.readyTime = readyTime;
+    }
+
+    public Runnable getTask() {
+        return task;
+    }
+
+    public void setTask(Runnable task) {
+        this.task = task;
+    }
+
+    public int[] getMaxClaim() {
+        return maxClaim;
+    }
+
+    public int[][] getResourcePlan() {
+        return resourcePlan;
+    }
+
+    /**
+     * 声明进程的资源需求：进程运行到计划中的 CPU 时间时申请或释放资源，运行完成时释放全部资源
+     *
+     * @param maxClaim     最大资源需求
+     * @param resourcePlan 资源计划，每行为 [CPU 时间, 各类资源的变化量...]（正数为申请、负数为释放），按 CPU 时间升序；
+     *                     任何时刻占用的资源都不能为负数或超过最大资源需求
+     */
+    public void setResourceClaim(int[] maxClaim, int[][] resourcePlan) {
+        int[] held = new int[maxClaim.length];
+        int lastTime = 0;
+        for (int d : maxClaim) {
+            if (d < 0) {
+                throw new IllegalArgumentException("最大资源需求必须>=0");
+            }
+        }
+        for (int[] step : resourcePlan) {
+            if (step.length != maxClaim.length + 1) {
+                throw new IllegalArgumentException("资源计划每行应为 CPU 时间加 " + maxClaim.length + " 类资源的变化量");
+            }
+            if (step[0] < lastTime) {
+                throw new IllegalArgumentException("资源计划应按 CPU 时间升序且 CPU 时间>=0");
+            }
+            lastTime = step[0];
+            for (int j = 0; j < maxClaim.length; j++) {
+                held[j] += step[j + 1];
+                if (held[j] < 0 || held[j] > maxClaim[j]) {
+                    throw new IllegalArgumentException("CPU 时间 " + step[0] + " 时占用的资源超出了 [0, 最大资源需求]");
+                }
+            }
+        }
+        this.maxClaim = maxClaim.clone();
+        this.resourcePlan = resourcePlan.clone();
+        this.planCursor = 0;
+    } // end setResourceClaim()
+
+    /**
+     * 当前 CPU 时间应执行的资源计划步骤
+     *
+     * @return 各类资源的变化量，没有待执行的步骤时返回 null
+     */
+    int[] pendingResourceStep() {
+        if (planCursor < resourcePlan.length && resourcePlan[planCursor][0] <= usedCPUTime) {
+            return Arrays.copyOfRange(resourcePlan[planCursor], 1, resourcePlan[planCursor].length);
+        }
+        return null;
+    } // end pendingResourceStep()
+
+    /**
+     * 当前的资源计划步骤已执行（申请被推迟时也视为已执行，由等待队列负责完成）
+     */
+    void completeResourceStep() {
+        planCursor++;
+    } // end completeResourceStep()
+
+    /**
+     * 下一个资源计划步骤的 CPU 时间（时间片在此截断，使申请在分派前进行）
+     *
+     * @return CPU 时间，没有时返回 Integer.MAX_VALUE
+     */
+    int nextResourcePoint() {
+        return planCursor < resourcePlan.length ? resourcePlan[planCursor][0] : Integer.MAX_VALUE;
+    } // end nextResourcePoint()
+
+    /**
+     * 重置资源计划进度（以便下次调度）
+     */
+    void resetResourcePlan() {
+        planCursor = 0;
+    } // end resetResourcePlan()
+
+    int getBankerIndex() {
+        return bankerIndex;
+    }
+
+    void setBankerIndex(int bankerIndex) {
+        this.bankerIndex = bankerIndex;
+    }
+
     @Override
     public String toString() {
         return String.format("%s（优先数=%d, 到达时间=%d, 需要运行时间=%d, 已用 CPU 时间=%d, 进程状态=%c）", name, priority,
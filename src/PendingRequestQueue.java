@@ -0,0 +1,146 @@
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * 等待中的资源请求队列类
+ * <p>
+ * 每个请求记录其超过可用资源数的资源种类数（阻塞计数），并按该种资源的请求量放入对应资源的最小堆。
+ * 资源 j 被释放时只需弹出堆 j 中请求量不超过新可用资源数的请求并减少其阻塞计数，
+ * 计数归零的请求才需要重新检查，不必轮询全部等待者。
+ * 可用资源足够、只因分配后不安全而被拒绝的请求单独存放，每次释放资源后都重新检查（释放可能使系统恢复安全）。
+ *
+ * @author agent
+ * @date 2026-10-19 08:46:29
+ */
+class PendingRequestQueue {
+    /**
+     * 等待中的请求
+     */
+    static final class Waiter {
+        final long sequence; // 提交序号（先提交的请求先重新检查）
+        final int processIndex; // 进程下标
+        final int[] request; // 请求向量
+        int blocked; // 请求量超过可用资源数的资源种类数（即所在的最小堆个数）
+
+        Waiter(long sequence, int processIndex, int[] request) {
+            this.sequence = sequence;
+            this.processIndex = processIndex;
+            this.request = request;
+        } // end Waiter()
+    } // end class Waiter
+
+    private final List<PriorityQueue<Waiter>> blockedBy = new ArrayList<>(); // 各资源的最小堆（按该资源的请求量）
+    private final List<Waiter> unsafe = new ArrayList<>(); // 可用资源足够、因不安全而等待的请求
+    private long nextSequence; // 下一个提交序号
+    private int size; // 等待中的请求数
+
+    /**
+     * 加入等待的请求
+     *
+     * @param processIndex 进程下标
+     * @param request      请求向量（副本）
+     * @param available    当前可用资源数
+     */
+    void add(int processIndex, int[] request, int[] available) {
+        park(new Waiter(nextSequence++, processIndex, request), available);
+        size++;
+    } // end add()
+
+    /**
+     * 按当前可用资源数将请求放回等待结构（重新检查后仍不能批准的请求也由此放回）
+     */
+    void park(Waiter waiter, int[] available) {
+        waiter.blocked = 0;
+        for (int j = 0; j < available.length; j++) {
+            if (waiter.request[j] > available[j]) {
+                heap(j).add(waiter);
+                waiter.blocked++;
+            }
+        }
+        if (waiter.blocked == 0) {
+            unsafe.add(waiter);
+        }
+    } // end park()
+
+    /**
+     * 资源释放后取出需要重新检查的请求（取出的请求不再属于任何等待结构，调用方须批准、放回或丢弃）
+     *
+     * @param released  释放的资源（只检查释放量大于0的资源对应的堆）
+     * @param available 释放后的可用资源数
+     * @return 需要重新检查的请求，按提交顺序排列
+     */
+    List<Waiter> wake(int[] released, int[] available) {
+        List<Waiter> candidates = new ArrayList<>(unsafe);
+        unsafe.clear();
+        for (int j = 0; j < released.length && j < blockedBy.size(); j++) {
+            if (released[j] <= 0) {
+                continue;
+            }
+            PriorityQueue<Waiter> heap = blockedBy.get(j);
+            while (!heap.isEmpty() && heap.peek().request[j] <= available[j]) {
+                Waiter waiter = heap.poll();
+                if (--waiter.blocked == 0) {
+                    candidates.add(waiter);
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingLong(w -> w.sequence));
+        return candidates;
+    } // end wake()
+
+    /**
+     * 取出全部等待中的请求（系统状态被整体修改后重新检查）
+     *
+     * @return 全部等待中的请求，按提交顺序排列
+     */
+    List<Waiter> drainAll() {
+        Set<Waiter> all = Collections.newSetFromMap(new IdentityHashMap<>());
+        all.addAll(unsafe);
+        for (PriorityQueue<Waiter> heap : blockedBy) {
+            all.addAll(heap);
+            heap.clear();
+        }
+        unsafe.clear();
+        List<Waiter> result = new ArrayList<>(all);
+        result.sort(Comparator.comparingLong(w -> w.sequence));
+        return result;
+    } // end drainAll()
+
+    /**
+     * 已取出的请求被批准或丢弃
+     */
+    void retire() {
+        size--;
+    } // end retire()
+
+    /**
+     * 取消进程的全部等待中的请求
+     *
+     * @param processIndex 进程下标
+     * @return 取消的请求数
+     */
+    int cancel(int processIndex) {
+        Set<Waiter> cancelled = Collections.newSetFromMap(new IdentityHashMap<>()); // 同一请求可能位于多个堆中
+        Predicate<Waiter> matches = waiter -> waiter.processIndex == processIndex;
+        for (PriorityQueue<Waiter> heap : blockedBy) {
+            heap.stream().filter(matches).forEach(cancelled::add);
+            heap.removeIf(matches);
+        }
+        unsafe.stream().filter(matches).forEach(cancelled::add);
+        unsafe.removeIf(matches);
+        size -= cancelled.size();
+        return cancelled.size();
+    } // end cancel()
+
+    int size() {
+        return size;
+    }
+
+    private PriorityQueue<Waiter> heap(int j) {
+        while (blockedBy.size() <= j) {
+            int resource = blockedBy.size();
+            blockedBy.add(new PriorityQueue<>(Comparator.comparingInt(w -> w.request[resource])));
+        }
+        return blockedBy.get(j);
+    } // end heap()
+} // end class PendingRequestQueue
@@ -0,0 +1,64 @@
+/**
+ * 实际执行报告类（模拟指标与实测指标）
+ *
+ * @author agent
+ * @date 2026-10-19 08:18:13
+ */
+public class RealExecutionReport {
+    private final SchedulingMetrics simulated; // 模拟指标
+    private final int completed; // 实际完成进程数
+    private final int failed; // 工作负载出错进程数
+    private final long wallNanos; // 墙钟总耗时（纳秒）
+    private final long avgLatencyNanos; // 平均完成时延（纳秒）
+    private final long maxLatencyNanos; // 最大完成时延（纳秒）
+
+    public RealExecutionReport(SchedulingMetrics simulated, int completed, int failed, long wallNanos,
+                               long avgLatencyNanos, long maxLatencyNanos) {
+        this.simulated = simulated;
+        this.completed = completed;
+        this.failed = failed;
+        this.wallNanos = wallNanos;
+        this.avgLatencyNanos = avgLatencyNanos;
+        this.maxLatencyNanos = maxLatencyNanos;
+    } // end RealExecutionReport()
+
+    public SchedulingMetrics getSimulated() {
+        return simulated;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public long getAvgLatencyNanos() {
+        return avgLatencyNanos;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    /**
+     * 实测吞吐量（每秒完成进程数）
+     *
+     * @return 吞吐量
+     */
+    public double getWallThroughput() {
+        return wallNanos > 0 ? completed * 1e9 / wallNanos : 0;
+    } // end getWallThroughput()
+
+    @Override
+    public String toString() {
+        return String.format("模拟：%s\n实测：完成进程数=%d, 出错进程数=%d, 总耗时=%.3f ms, 平均时延=%.3f ms, "
+                        + "最大时延=%.3f ms, 吞吐量=%.2f 个/秒", simulated, completed, failed, wallNanos / 1e6,
+                avgLatencyNanos / 1e6, maxLatencyNanos / 1e6, getWallThroughput());
+    } // end toString()
+} // end class RealExecutionReport
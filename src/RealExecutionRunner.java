@@ -0,0 +1,197 @@
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 实际执行模式运行器类
+ * <p>
+ * 每个进程由一个虚拟线程承载其工作负载，虚拟线程只有在调度器分配时间片后才能运行，
+ * 时间片结束时让出执行权（协作式让出点），因此同一时刻只有被调度器选中的进程在执行。
+ * 运行结束后同时给出模拟指标与实测的墙钟时延、吞吐量。
+ * <p>
+ * 用法：java RealExecutionRunner 负载文件 [每时间单位工作量] [时间片长度]
+ *
+ * @author agent
+ * @date 2026-10-19 08:18:13
+ */
+public class RealExecutionRunner implements SliceExecutor {
+    private static volatile long sink; // 防止示例工作负载被优化掉
+
+    /**
+     * 进程工作线程
+     */
+    private static final class Worker implements Runnable {
+        private final PCB process; // 进程
+        private final int units; // 需要执行的时间单位数
+        private final Semaphore dispatch = new Semaphore(0); // 调度信号（分配到时间片）
+        private final Semaphore yielded = new Semaphore(0); // 让出信号（时间片执行结束）
+        private int slice; // 当前时间片长度（由调度信号保证可见性）
+        private long finishNanos = -1; // 完成时刻
+        private Throwable failure; // 工作负载抛出的异常
+        private Thread thread; // 承载线程（虚拟线程）
+
+        Worker(PCB process) {
+            this.process = process;
+            this.units = Math.max(0, process.getRequiredRuntime());
+        } // end Worker()
+
+        @Override
+        public void run() {
+            int executed = 0;
+            try {
+                while (executed < units) {
+                    dispatch.acquire(); // 等待调度器分配时间片
+                    try {
+                        for (int i = 0; i < slice && failure == null; i++) {
+                            if (process.getTask() != null) {
+                                process.getTask().run();
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failure = e; // 工作负载出错时仍按时间片计时，避免调度器阻塞
+                    }
+                    executed += slice;
+                    if (executed >= units) {
+                        finishNanos = System.nanoTime();
+                    }
+                    yielded.release(); // 时间片结束，让出执行权
+                    Thread.yield();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } // end run()
+    } // end class Worker
+
+    private final Map<PCB, Worker> workers = new IdentityHashMap<>(); // 各进程的工作线程
+
+    /**
+     * 为进程启动工作线程（进程在被调度前不会执行）
+     *
+     * @param process 进程
+     */
+    public void start(PCB process) {
+        Worker worker = new Worker(process);
+        worker.thread = Thread.ofVirtual().name("pcb-" + process.getName()).start(worker);
+        workers.put(process, worker);
+    } // end start()
+
+    @Override
+    public void execute(PCB process, int slice) {
+        Worker worker = workers.get(process);
+        if (worker == null) {
+            return; // 进程没有工作线程，仅模拟执行
+        }
+        worker.slice = slice;
+        worker.dispatch.release();
+        worker.yielded.acquireUninterruptibly(); // 等待工作负载运行到让出点
+    } // end execute()
+
+    /**
+     * 结束所有工作线程（未运行完的进程被中断）
+     */
+    public void shutdown() {
+        for (Worker worker : workers.values()) {
+            worker.thread.interrupt();
+        }
+        for (Worker worker : workers.values()) {
+            try {
+                worker.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    } // end shutdown()
+
+    /**
+     * 在实际执行模式下运行一次完整的进程调度
+     *
+     * @param scheduler 进程调度器（应为新建的调度器）
+     * @param processes 进程（应设置工作负载，不应与其他模拟共享）
+     * @return 实际执行报告
+     */
+    public static RealExecutionReport run(Scheduler scheduler, List<PCB> processes) {
+        RealExecutionRunner runner = new RealExecutionRunner();
+        for (PCB process : processes) {
+            runner.start(process);
+        }
+        scheduler.setSliceExecutor(runner);
+
+        long startNanos = System.nanoTime();
+        SchedulingMetrics simulated;
+        try {
+            simulated = SchedulingSimulation.run(scheduler, processes);
+        } finally {
+            scheduler.setSliceExecutor(null);
+            runner.shutdown();
+        }
+        long endNanos = System.nanoTime();
+
+        /* 统计实测时延（自开始调度至进程完成） */
+        int completed = 0, failed = 0;
+        long latencySum = 0, latencyMax = 0;
+        for (Worker worker : runner.workers.values()) {
+            long finishNanos = worker.units == 0 ? startNanos : worker.finishNanos;
+            if (finishNanos >= 0) {
+                long latency = finishNanos - startNanos;
+                latencySum += latency;
+                latencyMax = Math.max(latencyMax, latency);
+                completed++;
+            }
+            if (worker.failure != null) {
+                failed++;
+            }
+        }
+
+        return new RealExecutionReport(simulated, completed, failed, endNanos - startNanos,
+                completed > 0 ? latencySum / completed : 0, latencyMax);
+    } // end run()
+
+    /**
+     * 示例工作负载：每个时间单位执行固定次数的整数运算
+     *
+     * @param iterations 运算次数
+     * @return 工作负载
+     */
+    public static Runnable spinTask(int iterations) {
+        return () -> {
+            long x = 0;
+            for (int i = 0; i < iterations; i++) {
+                x = x * 31 + i;
+            }
+            sink += x;
+        };
+    } // end spinTask()
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("用法：java RealExecutionRunner 负载文件 [每时间单位工作量] [时间片长度]");
+            System.exit(2);
+        }
+
+        try {
+            List<PCB> workload = WorkloadParser.parseWorkloadFile(Paths.get(args[0]));
+            int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+            int quantum = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+            for (String algorithm : new String[]{"FCFS", "HPF"}) {
+                Scheduler scheduler = "FCFS".equals(algorithm) ? new FCFScheduler() : new HPFScheduler();
+                scheduler.setTimeSlice(quantum);
+                List<PCB> processes = new ArrayList<>();
+                for (PCB process : workload) {
+                    PCB copy = new PCB(process);
+                    copy.setTask(spinTask(iterations));
+                    processes.add(copy);
+                }
+
+                RealExecutionReport report = run(scheduler, processes);
+                System.out.println("【" + algorithm + "】");
+                System.out.println(report);
+            }
+        } catch (Exception e) {
+            System.err.println("实际执行失败：" + e.getMessage());
+            System.exit(1);
+        }
+    } // end main()
+} // end class RealExecutionRunner
@@ -0,0 +1,15 @@
+/**
+ * 等待中的资源请求被批准的监听器接口
+ *
+ * @author agent
+ * @date 2026-10-19 08:46:29
+ */
+public interface RequestGrantListener {
+    /**
+     * 等待中的请求在资源释放后被批准（资源已分配给进程）
+     *
+     * @param processIndex 进程下标
+     * @param request      请求向量
+     */
+    void onGrant(int processIndex, int[] request);
+} // end interface RequestGrantListener
@@ -1,5 +1,7 @@
 import javax.swing.*;
 import java.awt.*;
+import java.text.ParseException;
+import java.util.Arrays;
 
 /**
  * 请求资源对话框类
@@ -9,7 +11,9 @@ import java.awt.*;
  */
 public class RequestResourceDialog extends JDialog {
     private JTextField pidField, requestField; // 请求资源信息
-    private JButton requestButton, cancelButton; // 功能按钮
+    private JComboBox<BankerAlgorithm.TraceLevel> traceLevelBox; // 运行结果的详细程度
+    private JCheckBox whatIfBox; // 只试探（在副本上试分配，不修改系统状态）
+    private JButton largestButton, requestButton, cancelButton; // 功能按钮
     private BankerAlgorithm banker; // 银行家算法器
     private ControlGUI controlGUI; // UI
 
@@ -17,9 +21,9 @@ public class RequestResourceDialog extends JDialog {
         super(owner, "请求资源（输入框有悬浮提示）", true);
         this.controlGUI = (ControlGUI) owner;
         this.banker = banker;
-        setSize(380, 150);
+        setSize(380, 230);
         setLocationRelativeTo(null);
-        setLayout(new GridLayout(3, 2));
+        setLayout(new GridLayout(5, 2));
 
         add(new JLabel("PID（整数>=0）："));
         pidField = new JTextField();
@@ -32,6 +36,20 @@ public class RequestResourceDialog extends JDialog {
         requestField.setToolTipText("例如：[1,0,1]");
         add(requestField);
 
+        add(new JLabel("运行结果详细程度："));
+        traceLevelBox = new JComboBox<>(BankerAlgorithm.TraceLevel.values());
+        traceLevelBox.setSelectedItem(BankerAlgorithm.TraceLevel.FULL);
+        traceLevelBox.setToolTipText("VERDICT：只输出结论；SEQUENCE：加上安全序列；DELTAS：加上每一步释放的资源；FULL：完整状态表");
+        add(traceLevelBox);
+
+        largestButton = new JButton("最大安全请求");
+        largestButton.setToolTipText("填入该进程当前能安全请求的极大请求向量");
+        largestButton.addActionListener(e -> onLargestSafeRequest());
+        add(largestButton);
+        whatIfBox = new JCheckBox("只试探，不修改系统状态");
+        whatIfBox.setToolTipText("在系统状态的写时复制副本上试分配，查看结果后系统状态保持不变");
+        add(whatIfBox);
+
         requestButton = new JButton("请求");
         requestButton.addActionListener(e -> onRequest());
         add(requestButton);
@@ -43,6 +61,22 @@ public class RequestResourceDialog extends JDialog {
         setLocationRelativeTo(owner);
     } // end RequestResourceDialog()
 
+    /**
+     * 最大安全请求按钮功能：求进程当前能安全请求的极大请求向量并填入请求向量输入框
+     */
+    private void onLargestSafeRequest() {
+        String pidStr = pidField.getText();
+        if (pidStr.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "请先输入 PID！！！", "输入错误", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        try {
+            requestField.setText(Arrays.toString(banker.largestSafeRequest(Integer.parseInt(pidStr))));
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "PID 不存在！！！", "输入错误", JOptionPane.ERROR_MESSAGE);
+        }
+    } // end onLargestSafeRequest()
+
     /**
      * 请求按钮功能：为进程请求资源
      */
@@ -55,17 +89,22 @@ public class RequestResourceDialog extends JDialog {
                 JOptionPane.showMessageDialog(null, "信息未输入完整！！！", "输入错误",
                         JOptionPane.ERROR_MESSAGE);
                 return;
-            } else if (!requestStr.matches("^\\[\\d+(,\\s*\\d+)*\\]$")) {
-                JOptionPane.showMessageDialog(null, "Allocation 应为>=0的整数数组！\n（表格单元格中，逗号后必须有空格）",
-                        "格式错误", JOptionPane.ERROR_MESSAGE);
-                return; // 如果验证失败，则直接返回并不继续执行后续逻辑
             }
 
             int pid = Integer.parseInt(pidStr);
-            int[] request = ResourceParser.parseResourceArray(requestStr);
+            int[] request;
+            try {
+                request = ResourceParser.parseResourceArray(requestStr);
+            } catch (ParseException ex) {
+                JOptionPane.showMessageDialog(this, "request 应为>=0的整数数组！\n" + ex.getMessage(),
+                        "格式错误", JOptionPane.ERROR_MESSAGE);
+                return; // 如果验证失败，则直接返回并不继续执行后续逻辑
+            }
 
             dispose(); // 关闭对话框
-            controlGUI.appendBankerRunningResult(banker.tryAllocate(pid, request));
+            BankerAlgorithm.TraceLevel level = (BankerAlgorithm.TraceLevel) traceLevelBox.getSelectedItem();
+            BankerAlgorithm target = whatIfBox.isSelected() ? banker.fork() : banker;
+            controlGUI.appendBankerRunningResult(target.tryAllocate(pid, request, level));
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "输入不规范，请注意整数>=0、符号、空格等问题！！！",
                     "格式错误", JOptionPane.ERROR_MESSAGE);
@@ -0,0 +1,162 @@
+/**
+ * 资源矩阵类（行对应进程，列对应资源种类）
+ * <p>
+ * 有两种存储方式：DenseResourceMatrix 按行分页连续存放全部元素；SparseResourceMatrix 每行只存放非零元素，
+ * 适合进程只占用、只需要少数几类资源的情况，内存与逐行比较、累加的时间都只与非零元素个数有关。
+ * 银行家算法器的 need 矩阵与 max 矩阵使用同一种存储方式。
+ *
+ * @author agent
+ * @date 2026-10-19 08:25:09
+ */
+public abstract class ResourceMatrix {
+    /**
+     * 由二维数组创建稠密资源矩阵
+     *
+     * @param matrix  二维数组
+     * @param columns 列数（各行长度必须等于列数）
+     * @return 资源矩阵
+     */
+    public static ResourceMatrix of(int[][] matrix, int columns) {
+        ResourceMatrix result = new DenseResourceMatrix(matrix.length, columns);
+        for (int i = 0; i < matrix.length; i++) {
+            result.setRow(i, matrix[i]);
+        }
+        return result;
+    } // end of()
+
+    public abstract int rows();
+
+    public abstract int columns();
+
+    public abstract int get(int i, int j);
+
+    public abstract void set(int i, int j, int value);
+
+    /**
+     * 获取一行的副本
+     *
+     * @param i 行下标
+     * @return 行副本
+     */
+    public abstract int[] row(int i);
+
+    /**
+     * 设置一行
+     *
+     * @param i      行下标
+     * @param values 行元素（长度必须等于列数）
+     */
+    public abstract void setRow(int i, int[] values);
+
+    /**
+     * 将一行全部置为指定值
+     */
+    public abstract void fillRow(int i, int value);
+
+    /**
+     * 在末尾添加一个全0行
+     *
+     * @return 新行下标
+     */
+    public abstract int addRow();
+
+    /**
+     * 第 i 行加上 sign × delta
+     *
+     * @param i     行下标
+     * @param delta 增量向量
+     * @param sign  符号（1 或 -1）
+     */
+    public abstract void addToRow(int i, int[] delta, int sign);
+
+    /**
+     * 判断第 i 行是否逐元素不大于向量 limit
+     *
+     * @param i     行下标
+     * @param limit 比较向量（各元素>=0）
+     * @return 是否逐元素不大于
+     */
+    public abstract boolean rowLessOrEqual(int i, int[] limit);
+
+    /**
+     * 将第 i 行累加到向量 target
+     *
+     * @param i      行下标
+     * @param target 累加目标
+     */
+    public abstract void addRowTo(int i, int[] target);
+
+    /**
+     * 获取第 i 行的非零元素（按列下标升序）
+     *
+     * @param i          行下标
+     * @param columnsOut 非零元素的列下标（长度不小于列数）
+     * @param valuesOut  非零元素的值（长度不小于列数）
+     * @return 非零元素个数
+     */
+    public abstract int rowNonZeros(int i, int[] columnsOut, int[] valuesOut);
+
+    /**
+     * 是否为稀疏存储
+     */
+    public abstract boolean isSparse();
+
+    /**
+     * 创建写时复制的副本：与原矩阵共享存储，之后双方的修改互不影响
+     * <p>
+     * 创建副本时原矩阵不能同时被修改；创建后原矩阵与副本可以分别在不同线程中使用。
+     *
+     * @return 副本
+     */
+    public abstract ResourceMatrix fork();
+
+    /**
+     * 创建独立的副本：复制全部存储，不与原矩阵共享，也不改变原矩阵各页（行）的独占状态
+     * <p>
+     * 副本随后会被大量修改、原矩阵也会继续被修改时使用，避免 fork() 使原矩阵之后的每次写入都先复制整页。
+     *
+     * @return 副本
+     */
+    public abstract ResourceMatrix copy();
+
+    /**
+     * 转换为二维数组（副本）
+     *
+     * @return 二维数组
+     */
+    public int[][] toArray() {
+        int[][] matrix = new int[rows()][];
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] = row(i);
+        }
+        return matrix;
+    } // end toArray()
+
+    /**
+     * 获取行优先存放的全部元素（副本）
+     *
+     * @return 一维数组
+     */
+    public int[] toFlatArray() {
+        int columns = columns();
+        int[] flat = new int[rows() * columns];
+        for (int i = 0; i < rows(); i++) {
+            System.arraycopy(row(i), 0, flat, i * columns, columns);
+        }
+        return flat;
+    } // end toFlatArray()
+
+    /**
+     * 将一行格式化为 [a, b, c] 形式
+     */
+    public String rowToString(int i) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int j = 0; j < columns(); j++) {
+            if (j > 0) {
+                sb.append(", ");
+            }
+            sb.append(get(i, j));
+        }
+        return sb.append("]").toString();
+    } // end rowToString()
+} // end class ResourceMatrix
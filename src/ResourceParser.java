@@ -1,69 +1,148 @@
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.text.ParseException;
+import java.util.Arrays;
 
 /**
  * 解析银行家算法输入资源类
+ * <p>
+ * 手写的单遍扫描器：逐字符同时完成格式验证与解析，直接得到 int 数组，不生成中间字符串。
+ * 数组形如 [a, b, c]，矩阵形如 [a,b],[c,d]，数之间、括号与逗号前后允许有空白。
+ * 格式错误时抛出 ParseException，其 errorOffset 为出错字符的下标。
  *
  * @author wzy
  * @date 2024-02-22 21:31:53
  */
 public class ResourceParser {
+    private final CharSequence text; // 输入文本
+    private int position; // 当前字符下标
+    private int lastRowLength; // 最近一次读取的行长度
+
+    private ResourceParser(CharSequence text) {
+        this.text = text;
+    } // end ResourceParser()
+
     /**
      * 解析输入的资源数组
      *
      * @param text 输入文本
      * @return 资源数组
-     * @throws Exception 异常
+     * @throws ParseException 格式错误
      */
-    public static int[] parseResourceArray(String text) throws Exception {
-        String trimmedInput = text.substring(1, text.length() - 1); // 去除字符串的开头和结尾的方括号
-        String[] stringNumbers = trimmedInput.split(","); // 使用逗号分隔符分割字符串
+    public static int[] parseResourceArray(CharSequence text) throws ParseException {
+        ResourceParser parser = new ResourceParser(text);
+        int[] numbers = parser.readRow(new int[8], 0, -1);
+        parser.expectEnd();
+        return Arrays.copyOf(numbers, parser.lastRowLength);
+    } // end parseResourceArray()
 
-        int[] numbers = new int[stringNumbers.length];
+    /**
+     * 解析输入的资源矩阵（各行长度必须相同）
+     *
+     * @param text 输入文本
+     * @return 资源矩阵
+     * @throws ParseException 格式错误
+     */
+    public static int[][] parseResourceMatrix(CharSequence text) throws ParseException {
+        ResourceParser parser = new ResourceParser(text);
+        int[] values = new int[16]; // 按行连续存放的全部元素
+        int rows = 0, columns = -1;
 
-        for (int i = 0; i < stringNumbers.length; i++) {
-            numbers[i] = Integer.parseInt(stringNumbers[i].trim());
+        while (true) {
+            values = parser.readRow(values, rows * Math.max(columns, 0), columns);
+            columns = parser.lastRowLength;
+            rows++;
+            parser.skipWhitespace();
+            if (!parser.hasNext()) {
+                break;
+            }
+            parser.expect(',');
         }
 
-        if (numbers.length == 0) {
-            throw new Exception("解析错误：输入数据格式不正确");
+        int[][] matrix = new int[rows][];
+        for (int i = 0; i < rows; i++) {
+            matrix[i] = Arrays.copyOfRange(values, i * columns, (i + 1) * columns);
         }
-
-        return numbers;
-    }
+        return matrix;
+    } // end parseResourceMatrix()
 
     /**
-     * 解析输入的资源矩阵
+     * 读取一行 [a, b, ...]，元素依次写入 values[offset..]
      *
-     * @param text 输入文本
-     * @return 资源矩阵
-     * @throws Exception 异常
+     * @param values   元素缓冲区（容量不足时扩容）
+     * @param offset   写入位置
+     * @param expected 期望的行长度，-1 表示不限
+     * @return 元素缓冲区
+     * @throws ParseException 格式错误
      */
-    public static int[][] parseResourceMatrix(String text) throws Exception {
-        Pattern pattern = Pattern.compile("\\[(.*?)\\]");
-        Matcher matcher = pattern.matcher(text);
-        List<int[]> matrixList = new ArrayList<>(); // 使用 List 先暂存匹配到的数组
+    private int[] readRow(int[] values, int offset, int expected) throws ParseException {
+        skipWhitespace();
+        expect('[');
+        int length = 0;
+        while (true) {
+            skipWhitespace();
+            if (offset + length == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[offset + length++] = readNumber();
+            skipWhitespace();
+            if (hasNext() && text.charAt(position) == ']') {
+                break;
+            }
+            if (!hasNext() || text.charAt(position) != ',') {
+                throw new ParseException("解析错误：位置 " + position + " 处应为“,”或“]”，实际为" + describeNext(), position);
+            }
+            position++;
+        }
+        if (expected >= 0 && length != expected) {
+            throw new ParseException("解析错误：位置 " + position + " 处的行有 " + length + " 个数，应为 " + expected + " 个", position);
+        }
+        position++; // ']'
+        lastRowLength = length;
+        return values;
+    } // end readRow()
 
-        while (matcher.find()) {
-            String[] numbers = matcher.group(1).split(",");
-            int[] row = new int[numbers.length];
-            for (int i = 0; i < numbers.length; i++) {
-                row[i] = Integer.parseInt(numbers[i].trim()); // 去除可能的空格并转换为整数
+    /**
+     * 读取一个>=0的整数
+     */
+    private int readNumber() throws ParseException {
+        int start = position;
+        long value = 0;
+        while (hasNext() && text.charAt(position) >= '0' && text.charAt(position) <= '9') {
+            value = value * 10 + (text.charAt(position++) - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw new ParseException("解析错误：位置 " + start + " 处的整数过大", start);
             }
-            matrixList.add(row); // 将转换后的数组添加到列表中
         }
+        if (position == start) {
+            throw new ParseException("解析错误：位置 " + position + " 处应为>=0的整数，实际为" + describeNext(), position);
+        }
+        return (int) value;
+    } // end readNumber()
 
-        int[][] matrix = new int[matrixList.size()][];
-        for (int i = 0; i < matrixList.size(); i++) {
-            matrix[i] = matrixList.get(i);
+    private void expect(char c) throws ParseException {
+        if (!hasNext() || text.charAt(position) != c) {
+            throw new ParseException("解析错误：位置 " + position + " 处应为“" + c + "”，实际为" + describeNext(), position);
         }
+        position++;
+    } // end expect()
 
-        if (matrix.length == 0) {
-            throw new Exception("解析错误：输入数据格式不正确");
+    private void expectEnd() throws ParseException {
+        skipWhitespace();
+        if (hasNext()) {
+            throw new ParseException("解析错误：位置 " + position + " 处有多余的字符" + describeNext(), position);
         }
+    } // end expectEnd()
 
-        return matrix;
-    }
+    private void skipWhitespace() {
+        while (hasNext() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    } // end skipWhitespace()
+
+    private boolean hasNext() {
+        return position < text.length();
+    } // end hasNext()
+
+    private String describeNext() {
+        return hasNext() ? "“" + text.charAt(position) + "”" : "输入结尾";
+    } // end describeNext()
 } // end class ResourceParser
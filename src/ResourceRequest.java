@@ -0,0 +1,43 @@
+import java.util.Arrays;
+
+/**
+ * 进程资源请求类
+ *
+ * @author agent
+ * @date 2026-10-19 08:21:07
+ */
+public class ResourceRequest {
+    private final int processIndex; // 进程下标
+    private final int[] request; // 请求向量
+
+    public ResourceRequest(int processIndex, int[] request) {
+        this.processIndex = processIndex;
+        this.request = request;
+    } // end ResourceRequest()
+
+    public int getProcessIndex() {
+        return processIndex;
+    }
+
+    public int[] getRequest() {
+        return request;
+    }
+
+    /**
+     * 请求的资源总量
+     *
+     * @return 资源总量
+     */
+    public long total() {
+        long total = 0;
+        for (int r : request) {
+            total += r;
+        }
+        return total;
+    } // end total()
+
+    @Override
+    public String toString() {
+        return processIndex + " ==> " + Arrays.toString(request);
+    } // end toString()
+} // end class ResourceRequest
@@ -0,0 +1,239 @@
+import java.util.Arrays;
+
+/**
+ * 增量维护的安全序列类
+ * <p>
+ * 记录安全序列第 k 步的余量 d_k = W_k - Need_k（W_k 为第 k 步开始时的工作向量）。位于第 p 步的进程：
+ * <ul>
+ *     <li>申请 q：第 p 步之前各步的 W 都减少 q，第 p 步的 W 与 Need 同时减少 q，之后各步不变，
+ *     因此序列仍然安全当且仅当前 p 步的余量都不小于 q，批准后前 p 步的余量减去 q；</li>
+ *     <li>释放 r（或撤销进程归还全部资源）：前 p 步的余量增加 r，序列仍然安全；</li>
+ *     <li>新进程追加到序列末尾，末尾的工作向量即资源总量，不受分配与释放影响。</li>
+ * </ul>
+ * 余量按块存放（每块记录块内最小值与整块的增量），前缀查询与前缀增加都是 O((n/B + B)·m)，B 取 √n。
+ *
+ * @author agent
+ * @date 2026-10-19 08:43:52
+ */
+class SafeSequenceIndex {
+    private static final int MIN_BLOCK_SIZE = 16; // 最小分块大小
+
+    private final int columns; // 资源种类数
+    private final int blockSize; // 分块大小
+    private final int[] endWork; // 序列末尾的工作向量（资源总量）
+    private int[] sequence; // 各位置上的进程，-1 表示已撤销进程留下的空位
+    private int[] position; // 各进程在序列中的位置，-1 表示不在序列中
+    private int length; // 序列长度（含空位）
+    private int holes; // 空位数
+    private int[] slack; // 各位置的余量（不含所在块的整块增量）
+    private int[] blockMin; // 各块余量的最小值（不含整块增量），块内没有进程时为 Integer.MAX_VALUE
+    private int[] blockAdd; // 各块的整块增量
+
+    /**
+     * 由安全序列建立索引 O(nm)
+     *
+     * @param order      安全序列
+     * @param available  系统可用资源数
+     * @param need       各进程还需资源数
+     * @param allocation 各进程已占用资源数
+     * @param processes  进程数（含已撤销进程）
+     */
+    SafeSequenceIndex(int[] order, int[] available, ResourceMatrix need, ResourceMatrix allocation, int processes) {
+        this.columns = available.length;
+        this.blockSize = Math.max(MIN_BLOCK_SIZE, (int) Math.sqrt(order.length));
+        this.length = order.length;
+        this.sequence = Arrays.copyOf(order, Math.max(length, 1));
+        this.position = new int[Math.max(processes, 1)];
+        Arrays.fill(position, -1);
+        this.slack = new int[sequence.length * columns];
+
+        int[] work = Arrays.copyOf(available, columns);
+        int[] nonZeroColumns = new int[columns], nonZeroValues = new int[columns]; // 一行还需量的非零元素
+        for (int k = 0; k < length; k++) {
+            int i = order[k];
+            position[i] = k;
+            System.arraycopy(work, 0, slack, k * columns, columns);
+            int count = need.rowNonZeros(i, nonZeroColumns, nonZeroValues);
+            for (int e = 0; e < count; e++) {
+                slack[k * columns + nonZeroColumns[e]] -= nonZeroValues[e];
+            }
+            allocation.addRowTo(i, work);
+        }
+        this.endWork = work;
+
+        int blocks = blockCount(sequence.length);
+        blockMin = new int[blocks * columns];
+        blockAdd = new int[blocks * columns];
+        for (int b = 0; b < blocks; b++) {
+            recomputeBlockMin(b);
+        }
+    } // end SafeSequenceIndex()
+
+    /**
+     * 进程申请 q 后原序列是否仍然安全（调用方已保证 q 不超过其还需资源数与可用资源数）
+     */
+    boolean canGrant(int processIndex, int[] request) {
+        int p = positionOf(processIndex);
+        return p >= 0 && prefixAtLeast(p, request);
+    } // end canGrant()
+
+    /**
+     * 批准进程的申请（须先通过 canGrant）
+     */
+    void grant(int processIndex, int[] request) {
+        addToPrefix(position[processIndex], request, -1);
+    } // end grant()
+
+    /**
+     * 进程释放资源
+     */
+    void release(int processIndex, int[] released) {
+        int p = positionOf(processIndex);
+        if (p >= 0) {
+            addToPrefix(p, released, 1);
+        }
+    } // end release()
+
+    /**
+     * 撤销进程：归还其全部资源，其位置成为空位
+     */
+    void remove(int processIndex, int[] allocated) {
+        int p = positionOf(processIndex);
+        if (p < 0) {
+            return;
+        }
+        addToPrefix(p, allocated, 1);
+        sequence[p] = -1;
+        position[processIndex] = -1;
+        holes++;
+        recomputeBlockMin(p / blockSize);
+    } // end remove()
+
+    /**
+     * 将新进程追加到序列末尾
+     *
+     * @param processIndex 进程下标
+     * @param need         进程还需资源数
+     * @return 是否追加成功（资源总量不足以满足其还需资源数时失败，此时不修改索引）
+     */
+    boolean append(int processIndex, int[] need) {
+        for (int j = 0; j < columns; j++) {
+            if (endWork[j] < need[j]) {
+                return false;
+            }
+        }
+        if (length == sequence.length) {
+            grow();
+        }
+        if (processIndex >= position.length) {
+            int oldLength = position.length;
+            position = Arrays.copyOf(position, Math.max(processIndex + 1, oldLength * 2));
+            Arrays.fill(position, oldLength, position.length, -1);
+        }
+
+        int k = length++, b = k / blockSize;
+        sequence[k] = processIndex;
+        position[processIndex] = k;
+        for (int j = 0; j < columns; j++) {
+            slack[k * columns + j] = endWork[j] - need[j] - blockAdd[b * columns + j];
+            blockMin[b * columns + j] = Math.min(blockMin[b * columns + j], slack[k * columns + j]);
+        }
+        return true;
+    } // end append()
+
+    /**
+     * 空位是否过多（此时应由当前安全序列重新建立索引）
+     */
+    boolean isFragmented() {
+        return holes > MIN_BLOCK_SIZE && holes * 2 > length;
+    } // end isFragmented()
+
+    /**
+     * 当前安全序列（跳过空位）
+     */
+    int[] order() {
+        int[] order = new int[length - holes];
+        int count = 0;
+        for (int k = 0; k < length; k++) {
+            if (sequence[k] >= 0) {
+                order[count++] = sequence[k];
+            }
+        }
+        return order;
+    } // end order()
+
+    private int positionOf(int processIndex) {
+        return processIndex >= 0 && processIndex < position.length ? position[processIndex] : -1;
+    } // end positionOf()
+
+    /**
+     * 前 p 个位置的余量是否都不小于 vector
+     */
+    private boolean prefixAtLeast(int p, int[] vector) {
+        int fullBlocks = p / blockSize;
+        for (int b = 0; b < fullBlocks; b++) {
+            for (int j = 0; j < columns; j++) {
+                int min = blockMin[b * columns + j];
+                if (min != Integer.MAX_VALUE && min + blockAdd[b * columns + j] < vector[j]) {
+                    return false;
+                }
+            }
+        }
+        for (int k = fullBlocks * blockSize; k < p; k++) {
+            if (sequence[k] < 0) {
+                continue;
+            }
+            for (int j = 0; j < columns; j++) {
+                if (slack[k * columns + j] + blockAdd[fullBlocks * columns + j] < vector[j]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    } // end prefixAtLeast()
+
+    /**
+     * 前 p 个位置的余量加上 sign × vector
+     */
+    private void addToPrefix(int p, int[] vector, int sign) {
+        int fullBlocks = p / blockSize;
+        for (int b = 0; b < fullBlocks; b++) {
+            VectorKernels.INSTANCE.addScaled(blockAdd, b * columns, vector, sign, columns);
+        }
+        int start = fullBlocks * blockSize;
+        if (start < p) {
+            for (int k = start; k < p; k++) {
+                VectorKernels.INSTANCE.addScaled(slack, k * columns, vector, sign, columns);
+            }
+            recomputeBlockMin(fullBlocks);
+        }
+    } // end addToPrefix()
+
+    private void recomputeBlockMin(int b) {
+        Arrays.fill(blockMin, b * columns, (b + 1) * columns, Integer.MAX_VALUE);
+        int end = Math.min(length, (b + 1) * blockSize);
+        for (int k = b * blockSize; k < end; k++) {
+            if (sequence[k] < 0) {
+                continue;
+            }
+            for (int j = 0; j < columns; j++) {
+                blockMin[b * columns + j] = Math.min(blockMin[b * columns + j], slack[k * columns + j]);
+            }
+        }
+    } // end recomputeBlockMin()
+
+    private void grow() {
+        int capacity = sequence.length * 2;
+        sequence = Arrays.copyOf(sequence, capacity);
+        slack = Arrays.copyOf(slack, capacity * columns);
+        int oldBlocks = blockMin.length / Math.max(columns, 1);
+        int blocks = blockCount(capacity);
+        blockMin = Arrays.copyOf(blockMin, blocks * columns);
+        blockAdd = Arrays.copyOf(blockAdd, blocks * columns);
+        Arrays.fill(blockMin, oldBlocks * columns, blocks * columns, Integer.MAX_VALUE);
+    } // end grow()
+
+    private int blockCount(int capacity) {
+        return (capacity + blockSize - 1) / blockSize;
+    } // end blockCount()
+} // end class SafeSequenceIndex
@@ -0,0 +1,17 @@
+/**
+ * 安全序列步骤监听器接口（以结构化事件代替逐步输出的状态表文本）
+ *
+ * @author agent
+ * @date 2026-10-19 08:40:57
+ */
+public interface SafetyStepListener {
+    /**
+     * 安全序列中的一个进程运行完成并释放资源
+     *
+     * @param step         步骤序号（从0开始）
+     * @param processIndex 进程下标
+     * @param released     该进程释放的资源（即其已占用资源数）
+     * @param work         释放后的可用资源数（回调返回后会继续被修改，需要保留时请复制）
+     */
+    void onStep(int step, int processIndex, int[] released, int[] work);
+} // end interface SafetyStepListener
@@ -1,19 +1,46 @@
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * 进程调度器抽象类
+ * <p>
+ * 设置银行家算法器后，声明了资源需求的进程在分派前先执行当前 CPU 时间的资源计划步骤：
+ * 申请超过可用资源数或分配后不安全时不分派该进程，而是将其移入等待队列并继续选择下一个进程，
+ * 进程运行完成或被撤销时归还全部资源。分派前的检查只比较一次请求向量并在上次的安全序列上增量验证，
+ * 等待中的进程只在其所缺资源被释放后才由银行家算法器重新检查，不需要每次调度都完整检查安全性。
  *
  * @author wzy
  * @date 2024-02-03 16:04:18
  */
 public abstract class Scheduler {
+    static final int MAX_DRAIN_BATCH = 1024; // 每次调度最多处理的提交数（避免生产者过快导致调度饥饿）
+
+    /**
+     * 进程提交（创建或撤销）
+     */
+    private static final class Submission {
+        private final PCB process; // 进程
+        private final boolean create; // true: 创建，false: 撤销
+
+        Submission(PCB process, boolean create) {
+            this.process = process;
+            this.create = create;
+        } // end Submission()
+    } // end class Submission
+
     Queue<PCB> readyQueue = new LinkedList<>(); // 就绪队列
     Queue<PCB> waitQueue = new LinkedList<>(); // 等待队列
     List<PCB> finishedProcesses = new ArrayList<>(); // 完成进程
 
     int time = 0; // 运行时间
+    int timeSlice = 1; // 时间片长度
+    SliceExecutor sliceExecutor; // 时间片执行器（为 null 时只模拟执行）
     PCB currentProcess; // 当前运行进程
     Queue<Integer> priorityBackup = new LinkedList<>(); // 优先数备份（用于 HPF 运行之后重置优先数状态）
+    private final Queue<Submission> submissions = new ConcurrentLinkedQueue<>(); // 进程提交队列（多生产者无锁队列）
+    BankerAlgorithm banker; // 银行家算法器（为 null 时调度不考虑资源）
+    private final Map<Integer, PCB> resourceHolders = new HashMap<>(); // 银行家算法器中的进程下标 → 进程
+    private int[] totalResources; // 系统资源总量（设置银行家算法器时求得，调度过程中不变）
 
     abstract void createProcess(PCB process); // 创建进程
 
@@ -21,6 +48,249 @@ public abstract class Scheduler {
 
     abstract String schedule(); // 进程调度
 
+    abstract void requeue(PCB process); // 等待资源的进程获得资源后重新加入就绪队列
+
+    public BankerAlgorithm getBanker() {
+        return banker;
+    }
+
+    /**
+     * 设置银行家算法器：声明了资源需求的未完成进程登记为其中的进程（原算法器中登记的进程被撤销）
+     *
+     * @param banker 银行家算法器（为 null 时调度不考虑资源）
+     * @throws IllegalArgumentException 进程的最大资源需求与资源种类数不符或超过系统资源总量（此时不做任何修改）
+     */
+    public void setBanker(BankerAlgorithm banker) {
+        int[] total = banker == null ? null : banker.getTotalResources();
+        if (banker != null) {
+            for (PCB process : readyQueue) {
+                if (process.getState() != 'F') {
+                    checkResourceClaim(process, total);
+                }
+            }
+        }
+        if (this.banker != null) {
+            for (PCB process : new ArrayList<>(resourceHolders.values())) {
+                releaseResources(process);
+            }
+            this.banker.setGrantListener(null);
+        }
+        this.banker = banker;
+        this.totalResources = total;
+        if (banker != null) {
+            banker.setGrantListener(this::onResourceGranted);
+            for (PCB process : readyQueue) {
+                if (process.getState() != 'F') {
+                    registerResources(process);
+                }
+            }
+        }
+    } // end setBanker()
+
+    /**
+     * 将声明了资源需求的进程登记到银行家算法器
+     *
+     * @throws IllegalArgumentException 进程的最大资源需求与资源种类数不符或超过系统资源总量（此时不登记）
+     */
+    void registerResources(PCB process) {
+        if (banker == null || process.getMaxClaim() == null || process.getBankerIndex() >= 0) {
+            return;
+        }
+        checkResourceClaim(process, totalResources);
+        int index = banker.addProcess(process.getMaxClaim());
+        process.setBankerIndex(index);
+        resourceHolders.put(index, process);
+    } // end registerResources()
+
+    /**
+     * 检查进程的最大资源需求能否登记：超过系统资源总量的进程永远无法运行完成，
+     * 登记后系统不再安全，其他进程的申请也都会被拒绝，因此必须在登记前拒绝
+     *
+     * @param process 进程
+     * @param total   系统资源总量
+     * @throws IllegalArgumentException 最大资源需求与资源种类数不符或超过系统资源总量
+     */
+    private static void checkResourceClaim(PCB process, int[] total) {
+        int[] maxClaim = process.getMaxClaim();
+        if (maxClaim == null) {
+            return;
+        }
+        if (maxClaim.length != total.length) {
+            throw new IllegalArgumentException("进程 " + process.getName() + " 的最大资源需求长度应为资源种类数 " + total.length);
+        }
+        for (int j = 0; j < total.length; j++) {
+            if (maxClaim[j] > total[j]) {
+                throw new IllegalArgumentException("进程 " + process.getName() + " 对资源 " + j + " 的最大需求 " + maxClaim[j]
+                        + " 超过了系统资源总量 " + total[j]);
+            }
+        }
+    } // end checkResourceClaim()
+
+    /**
+     * 进程归还全部资源并从银行家算法器中撤销（可能使等待资源的进程获得资源）
+     */
+    void releaseResources(PCB process) {
+        int index = process.getBankerIndex();
+        if (index < 0) {
+            return;
+        }
+        resourceHolders.remove(index);
+        process.setBankerIndex(-1);
+        banker.removeProcess(index); // 同时取消其等待中的请求
+    } // end releaseResources()
+
+    /**
+     * 执行进程当前 CPU 时间的资源计划步骤（分派前调用）：先释放，再申请
+     *
+     * @param process 进程
+     * @return 是否可以分派；不能安全获得资源时进程已移入等待队列（状态 W）
+     */
+    boolean acquirePlannedResources(PCB process) {
+        int index = process.getBankerIndex();
+        int[] step;
+        while (index >= 0 && (step = process.pendingResourceStep()) != null) {
+            process.completeResourceStep();
+            int[] release = new int[step.length], request = new int[step.length];
+            boolean releasing = false, requesting = false;
+            for (int j = 0; j < step.length; j++) {
+                if (step[j] < 0) {
+                    release[j] = -step[j];
+                    releasing = true;
+                } else if (step[j] > 0) {
+                    request[j] = step[j];
+                    requesting = true;
+                }
+            }
+            if (releasing) {
+                banker.release(index, release);
+            }
+            if (requesting && !banker.allocateOrWait(index, request)) {
+                process.setState('W');
+                waitQueue.offer(process);
+                return false;
+            }
+        }
+        return true;
+    } // end acquirePlannedResources()
+
+    /**
+     * 银行家算法器批准了等待中的请求：进程回到就绪队列
+     */
+    private void onResourceGranted(int processIndex, int[] request) {
+        PCB process = resourceHolders.get(processIndex);
+        if (process != null && waitQueue.remove(process)) {
+            process.setState('R');
+            requeue(process);
+        }
+    } // end onResourceGranted()
+
+    /**
+     * 进程运行完成：归还全部资源
+     */
+    void finishProcess(PCB process) {
+        process.setState('F');
+        finishedProcesses.add(process);
+        releaseResources(process);
+    } // end finishProcess()
+
+    /**
+     * 进程调度结束：输出最后的状态并重置（没有可运行进程而等待队列非空时，等待的进程再也无法获得资源）
+     *
+     * @param priorityQueue 优先队列
+     * @return 运行结果
+     */
+    String endScheduling(PriorityQueue<PCB> priorityQueue) {
+        StringBuilder result = new StringBuilder();
+        result.append("运行进程：\n");
+        result.append(displaySchedulingStatus(priorityQueue)).append("\n");
+        if (!waitQueue.isEmpty()) {
+            result.append("【等待队列中的进程所需资源无法满足】\n");
+        }
+        result.append("【进程调度结束】\n");
+        resetSchedulingStatus(priorityQueue);
+        return result.toString();
+    } // end endScheduling()
+
+    /**
+     * 提交创建进程（可在任意线程调用，进程在下一次调度开始时加入调度器）
+     *
+     * @param process 进程
+     */
+    public void submitProcess(PCB process) {
+        submissions.offer(new Submission(process, true));
+    } // end submitProcess()
+
+    /**
+     * 提交撤销进程（可在任意线程调用，进程在下一次调度开始时从调度器移除）
+     *
+     * @param process 进程
+     */
+    public void submitKill(PCB process) {
+        submissions.offer(new Submission(process, false));
+    } // end submitKill()
+
+    /**
+     * 批量处理其他线程提交的创建、撤销请求（由调度线程在每次调度开始时调用）
+     *
+     * @param result 调度输出（资源需求不能登记的进程被拒绝创建，在此说明原因）
+     * @return 本次处理的提交数
+     */
+    int drainSubmissions(StringBuilder result) {
+        int drained = 0;
+        Submission submission;
+        while (drained < MAX_DRAIN_BATCH && (submission = submissions.poll()) != null) {
+            if (submission.create) {
+                try {
+                    createProcess(submission.process);
+                } catch (IllegalArgumentException e) {
+                    result.append("拒绝创建进程：").append(e.getMessage()).append("\n");
+                }
+            } else {
+                killProcess(submission.process);
+            }
+            drained++;
+        }
+        return drained;
+    } // end drainSubmissions()
+
+    /**
+     * 模拟执行一个时间片
+     *
+     * @param process 运行进程
+     * @return 实际运行时间（不超过进程剩余运行时间）
+     */
+    int executeSlice(PCB process) {
+        int slice = Math.max(0, Math.min(timeSlice, process.getRequiredRuntime() - process.getUsedCPUTime()));
+        if (process.getBankerIndex() >= 0) {
+            slice = (int) Math.min(slice, (long) process.nextResourcePoint() - process.getUsedCPUTime()); // 在下一个资源计划步骤处截断
+        }
+        if (sliceExecutor != null && slice > 0) {
+            sliceExecutor.execute(process, slice); // 实际执行模式：交给工作负载运行
+        }
+        process.setUsedCPUTime(process.getUsedCPUTime() + slice);
+        time += slice;
+        return slice;
+    } // end executeSlice()
+
+    public SliceExecutor getSliceExecutor() {
+        return sliceExecutor;
+    }
+
+    public void setSliceExecutor(SliceExecutor sliceExecutor) {
+        this.sliceExecutor = sliceExecutor;
+    }
+
+    public int getTimeSlice() {
+        return timeSlice;
+    }
+
+    public void setTimeSlice(int timeSlice) {
+        if (timeSlice <= 0) {
+            throw new IllegalArgumentException("时间片长度必须>0");
+        }
+        this.timeSlice = timeSlice;
+    }
+
     /**
      * 显示各进程的运行情况
      *
@@ -70,6 +340,10 @@ public abstract class Scheduler {
     void resetSchedulingStatus(Queue<PCB> priorityQueue) {
         time = 0;
         currentProcess = null;
+        waitQueue.clear();
+        for (PCB process : readyQueue) {
+            releaseResources(process); // 等待资源而未完成的进程也归还资源
+        }
         Queue<Integer> temp = priorityBackup;
         for (PCB process : readyQueue) {
             if (!temp.isEmpty()) {
@@ -77,11 +351,14 @@ public abstract class Scheduler {
             }
             process.setUsedCPUTime(0);
             process.setState('R');
+            process.setReadyTime(process.getArrivalTime()); // 到达之后才开始老化
+            process.resetResourcePlan();
+            registerResources(process);
             if (priorityQueue != null) {
                 priorityQueue.offer(process);
             }
         }
-        waitQueue.clear();
+        priorityBackup.clear();
         finishedProcesses.clear();
     } // end resetSchedulingStatus()
 } // end abstract class Scheduler
@@ -0,0 +1,84 @@
+import java.util.*;
+
+/**
+ * 进程调度性能指标类
+ *
+ * @author agent
+ * @date 2026-10-19 08:15:45
+ */
+public class SchedulingMetrics {
+    public static final String CSV_HEADER = "processes,makespan,avgTurnaround,avgWaiting,throughput";
+
+    private final int processCount; // 进程数
+    private final int makespan; // 全部进程完成时间
+    private final double avgTurnaround; // 平均周转时间
+    private final double avgWaiting; // 平均等待时间
+    private final double throughput; // 吞吐量（每时间单位完成进程数）
+
+    public SchedulingMetrics(int processCount, int makespan, double avgTurnaround, double avgWaiting) {
+        this.processCount = processCount;
+        this.makespan = makespan;
+        this.avgTurnaround = avgTurnaround;
+        this.avgWaiting = avgWaiting;
+        this.throughput = makespan > 0 ? (double) processCount / makespan : 0;
+    } // end SchedulingMetrics()
+
+    /**
+     * 根据各进程完成时间计算调度指标
+     *
+     * @param finishTimes 各进程完成时间
+     * @return 调度指标
+     */
+    public static SchedulingMetrics of(Map<PCB, Integer> finishTimes) {
+        int makespan = 0;
+        long turnaroundSum = 0, waitingSum = 0;
+        for (Map.Entry<PCB, Integer> entry : finishTimes.entrySet()) {
+            PCB process = entry.getKey();
+            int finishTime = entry.getValue();
+            int turnaround = finishTime - process.getArrivalTime();
+            makespan = Math.max(makespan, finishTime);
+            turnaroundSum += turnaround;
+            waitingSum += turnaround - Math.max(0, process.getRequiredRuntime());
+        }
+
+        int n = finishTimes.size();
+        return new SchedulingMetrics(n, makespan,
+                n > 0 ? (double) turnaroundSum / n : 0, n > 0 ? (double) waitingSum / n : 0);
+    } // end of()
+
+    public int getProcessCount() {
+        return processCount;
+    }
+
+    public int getMakespan() {
+        return makespan;
+    }
+
+    public double getAvgTurnaround() {
+        return avgTurnaround;
+    }
+
+    public double getAvgWaiting() {
+        return avgWaiting;
+    }
+
+    public double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * 转换为 CSV 行（列顺序同 CSV_HEADER）
+     *
+     * @return CSV 行
+     */
+    public String toCsv() {
+        return String.format(Locale.ROOT, "%d,%d,%.4f,%.4f,%.6f",
+                processCount, makespan, avgTurnaround, avgWaiting, throughput);
+    } // end toCsv()
+
+    @Override
+    public String toString() {
+        return String.format("进程数=%d, 完成时间=%d, 平均周转时间=%.2f, 平均等待时间=%.2f, 吞吐量=%.4f",
+                processCount, makespan, avgTurnaround, avgWaiting, throughput);
+    } // end toString()
+} // end class SchedulingMetrics
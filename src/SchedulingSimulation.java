@@ -0,0 +1,44 @@
+import java.util.*;
+
+/**
+ * 无界面进程调度模拟类（将调度器运行至调度结束并统计指标）
+ *
+ * @author agent
+ * @date 2026-10-19 08:15:45
+ */
+public class SchedulingSimulation {
+    /**
+     * 运行一次完整的进程调度
+     *
+     * @param scheduler 进程调度器（应为新建的调度器）
+     * @param processes 进程（调度过程中会修改其状态，不应与其他模拟共享）
+     * @return 调度指标
+     */
+    public static SchedulingMetrics run(Scheduler scheduler, List<PCB> processes) {
+        long maxSteps = processes.size() + 2L;
+        for (PCB process : processes) {
+            scheduler.createProcess(process);
+            maxSteps += Math.max(0, process.getRequiredRuntime()) + Math.max(0, process.getArrivalTime());
+        }
+
+        Map<PCB, Integer> finishTimes = new IdentityHashMap<>();
+        int recorded = 0; // 已记录完成时间的进程数
+        for (long step = 0; ; step++) {
+            if (step > maxSteps) {
+                throw new IllegalStateException("进程调度未能在 " + maxSteps + " 步内结束");
+            }
+            scheduler.schedule();
+
+            /* 调度结束时会清空完成进程，因此每步都记录新完成进程的完成时间 */
+            List<PCB> finished = scheduler.finishedProcesses;
+            for (; recorded < finished.size(); recorded++) {
+                finishTimes.putIfAbsent(finished.get(recorded), scheduler.time);
+            }
+            if (scheduler.currentProcess == null) {
+                break; // 进程调度结束
+            }
+        }
+
+        return SchedulingMetrics.of(finishTimes);
+    } // end run()
+} // end class SchedulingSimulation
@@ -1,5 +1,7 @@
 import javax.swing.*;
 import java.awt.*;
+import java.io.File;
+import java.text.ParseException;
 
 /**
  * 设置系统可用资源对话框类
@@ -9,7 +11,7 @@ import java.awt.*;
  */
 public class SetResourceDialog extends JDialog {
     private JTextField availableField, maxField, allocationField; // 资源信息
-    private JButton confirmButton, cancelButton; // 功能按钮
+    private JButton importButton, confirmButton, cancelButton; // 功能按钮
     private BankerAlgorithm banker; // 银行家算法器
     private ControlGUI controlGUI; // UI
 
@@ -17,9 +19,9 @@ public class SetResourceDialog extends JDialog {
         super(owner, "设置系统资源（输入框有悬浮提示）", true);
         this.controlGUI = (ControlGUI) owner;
         this.banker = banker;
-        setSize(530, 190);
+        setSize(530, 230);
         setLocationRelativeTo(null);
-        setLayout(new GridLayout(4, 2));
+        setLayout(new GridLayout(5, 2));
 
         add(new JLabel("系统可用资源数 Available（整数>=0）："));
         availableField = new JTextField();
@@ -36,6 +38,12 @@ public class SetResourceDialog extends JDialog {
         allocationField.setToolTipText("例如：[0,0,0],[0,1,0]");
         add(allocationField);
 
+        add(new JLabel("或从文件导入（文本或 BNKR 二进制格式）："));
+        importButton = new JButton("从文件导入");
+        importButton.setToolTipText("文本格式：n,m，Available，之后每个进程一行 Max,Allocation；# 之后为注释");
+        importButton.addActionListener(e -> onImport());
+        add(importButton);
+
         confirmButton = new JButton("设置");
         confirmButton.addActionListener(e -> onConfirm());
         add(confirmButton);
@@ -61,13 +69,22 @@ public class SetResourceDialog extends JDialog {
                 JOptionPane.showMessageDialog(null, "资源信息未输入完整，请输入！！！", "输入错误",
                         JOptionPane.ERROR_MESSAGE);
                 return;
-            } else if (validateInputFormats(availableStr, maxStr, allocationStr)) {
-                return; // 如果验证失败，则直接返回并不继续执行后续逻辑
             }
 
-            int[] available = ResourceParser.parseResourceArray(availableStr);
-            int[][] max = ResourceParser.parseResourceMatrix(maxStr);
-            int[][] allocation = ResourceParser.parseResourceMatrix(allocationStr);
+            /* 验证并解析输入（格式错误时指出出错位置） */
+            int[][] availableRow = parseInput("Available", availableStr, true);
+            int[][] max = availableRow == null ? null : parseInput("Max", maxStr, false);
+            int[][] allocation = max == null ? null : parseInput("Allocation", allocationStr, false);
+            if (allocation == null) {
+                return; // 如果验证失败，则直接返回并不继续执行后续逻辑
+            }
+            int[] available = availableRow[0];
+            if (max.length != allocation.length || max[0].length != available.length
+                    || allocation[0].length != available.length) {
+                JOptionPane.showMessageDialog(this, "Available、Max、Allocation 的进程数或资源种类数不一致！！！",
+                        "格式错误", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
 
             /* 验证输入的算法合法性 */
             if (isAllocationWithinMax(max, allocation)) {
@@ -87,29 +104,40 @@ public class SetResourceDialog extends JDialog {
     } // end onConfirm()
 
     /**
-     * 验证资源输入是否都是正整数
-     *
-     * @param availableStr  系统可用资源数文本
-     * @param maxStr        各进程最大需求量文本
-     * @param allocationStr 各进程已占用资源数文本
-     * @return 验证结果
+     * 导入按钮功能：从文件导入系统资源
      */
-    public boolean validateInputFormats(String availableStr, String maxStr, String allocationStr) {
-        String regexForAvailable = "^\\[\\d+(,\\s*\\d+)*\\]$"; // >=0的整数数组
-        String regexForMaxAndAllocation = "^\\[(\\d+(,\\d+)*)](,\\[(\\d+(,\\d+)*)])*"; // >=0的整数序列数组
-
-        boolean isValidAvailable = availableStr.matches(regexForAvailable);
-        boolean isValidMax = maxStr.matches(regexForMaxAndAllocation);
-        boolean isValidAllocation = allocationStr.matches(regexForMaxAndAllocation);
+    private void onImport() {
+        JFileChooser chooser = new JFileChooser(new File("."));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            banker = BankerStateLoader.load(chooser.getSelectedFile().toPath());
 
-        if (!isValidAvailable || !isValidMax || !isValidAllocation) {
-            JOptionPane.showMessageDialog(this, "输入不规范，请注意整数>=0、符号、空格等问题！！！",
-                    "格式错误", JOptionPane.ERROR_MESSAGE);
-            return true;
+            dispose(); // 关闭对话框
+            controlGUI.updateResourceInfo(banker);
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "导入失败", JOptionPane.ERROR_MESSAGE);
         }
+    } // end onImport()
 
-        return false;
-    } // end validateInputFormats()
+    /**
+     * 验证并解析资源输入，格式错误时提示出错位置
+     *
+     * @param name    输入项名称
+     * @param text    输入文本
+     * @param isArray 是否为数组（否则为矩阵）
+     * @return 解析结果（数组时为只有一行的矩阵），格式错误时返回 null
+     */
+    private int[][] parseInput(String name, String text, boolean isArray) {
+        try {
+            return isArray ? new int[][]{ResourceParser.parseResourceArray(text)} : ResourceParser.parseResourceMatrix(text);
+        } catch (ParseException ex) {
+            JOptionPane.showMessageDialog(this, name + " 输入不规范：" + ex.getMessage() + "\n" + text + "\n"
+                    + " ".repeat(ex.getErrorOffset()) + "^", "格式错误", JOptionPane.ERROR_MESSAGE);
+            return null;
+        }
+    } // end parseInput()
 
     /**
      * 验证输入的“进程已占用资源数”是否超过了“进程最大需求量”
@@ -0,0 +1,15 @@
+/**
+ * 时间片执行器接口（用于将调度器选中的时间片交给实际工作负载执行）
+ *
+ * @author agent
+ * @date 2026-10-19 08:18:13
+ */
+public interface SliceExecutor {
+    /**
+     * 执行进程的一个时间片，执行完毕后返回
+     *
+     * @param process 进程
+     * @param slice   时间片长度（实际运行的时间单位数）
+     */
+    void execute(PCB process, int slice);
+} // end interface SliceExecutor
@@ -0,0 +1,279 @@
+import java.util.Arrays;
+
+/**
+ * 稀疏资源矩阵类（按行压缩存放非零元素）
+ * <p>
+ * 每行以两个数组分别存放非零元素的列下标（升序）与值，相当于把 CSR 的各行拆开存放，
+ * 使分配与释放改变某行的非零元素个数时只需重建该行。按下标读写为 O(log k)，
+ * 逐行比较、累加为 O(k)（k 为该行非零元素个数），内存为 O(rows + 非零元素个数)。
+ * fork() 只复制各行数组的引用，任何一方写入某行前先复制该行（写时复制）。
+ *
+ * @author agent
+ * @date 2026-10-19 08:53:56
+ */
+public class SparseResourceMatrix extends ResourceMatrix {
+    private static final int[] EMPTY = new int[0]; // 空行共享的数组
+
+    private final int columns; // 列数（资源种类数）
+    private int rows; // 行数（进程数）
+    private int[][] rowColumns; // 各行非零元素的列下标（升序，只有前 rowSize[i] 个有效）
+    private int[][] rowValues; // 各行非零元素的值
+    private int[] rowSize; // 各行非零元素个数
+    private boolean[] owned; // 各行数组是否为本矩阵独占（共享的行在写入前复制）
+    private long nonZeros; // 非零元素总数
+
+    public SparseResourceMatrix(int rows, int columns) {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("矩阵行列数必须>=0");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.rowColumns = new int[rows][];
+        this.rowValues = new int[rows][];
+        this.rowSize = new int[rows];
+        this.owned = new boolean[rows];
+        Arrays.fill(rowColumns, EMPTY);
+        Arrays.fill(rowValues, EMPTY);
+    } // end SparseResourceMatrix()
+
+    private SparseResourceMatrix(SparseResourceMatrix source) {
+        this.rows = source.rows;
+        this.columns = source.columns;
+        this.rowColumns = source.rowColumns.clone();
+        this.rowValues = source.rowValues.clone();
+        this.rowSize = source.rowSize.clone();
+        this.owned = new boolean[rowSize.length];
+        this.nonZeros = source.nonZeros;
+    } // end SparseResourceMatrix()
+
+    /**
+     * 由二维数组创建稀疏资源矩阵
+     *
+     * @param matrix  二维数组
+     * @param columns 列数（各行长度必须等于列数）
+     * @return 资源矩阵
+     */
+    public static SparseResourceMatrix of(int[][] matrix, int columns) {
+        SparseResourceMatrix result = new SparseResourceMatrix(matrix.length, columns);
+        for (int i = 0; i < matrix.length; i++) {
+            result.setRow(i, matrix[i]);
+        }
+        return result;
+    } // end of()
+
+    /**
+     * 非零元素总数
+     */
+    public long nonZeroCount() {
+        return nonZeros;
+    } // end nonZeroCount()
+
+    @Override
+    public ResourceMatrix fork() {
+        Arrays.fill(owned, false); // 原矩阵此后写入共享行时也要先复制
+        return new SparseResourceMatrix(this);
+    } // end fork()
+
+    @Override
+    public ResourceMatrix copy() {
+        SparseResourceMatrix copy = new SparseResourceMatrix(this);
+        for (int i = 0; i < rows; i++) {
+            int size = rowSize[i];
+            copy.rowColumns[i] = size == 0 ? EMPTY : Arrays.copyOf(rowColumns[i], size);
+            copy.rowValues[i] = size == 0 ? EMPTY : Arrays.copyOf(rowValues[i], size);
+            copy.owned[i] = size > 0;
+        }
+        return copy;
+    } // end copy()
+
+    @Override
+    public boolean isSparse() {
+        return true;
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public int get(int i, int j) {
+        int k = Arrays.binarySearch(rowColumns[i], 0, rowSize[i], j);
+        return k >= 0 ? rowValues[i][k] : 0;
+    }
+
+    @Override
+    public void set(int i, int j, int value) {
+        if (j < 0 || j >= columns) {
+            throw new IndexOutOfBoundsException("列下标 " + j + " 超出范围");
+        }
+        int size = rowSize[i];
+        int k = Arrays.binarySearch(rowColumns[i], 0, size, j);
+        if (k >= 0) {
+            writableRow(i, size);
+            if (value != 0) {
+                rowValues[i][k] = value;
+            } else { // 删除该元素
+                System.arraycopy(rowColumns[i], k + 1, rowColumns[i], k, size - k - 1);
+                System.arraycopy(rowValues[i], k + 1, rowValues[i], k, size - k - 1);
+                rowSize[i]--;
+                nonZeros--;
+            }
+        } else if (value != 0) { // 在有序位置插入（按列顺序逐个设置时总是追加在末尾）
+            int insert = -k - 1;
+            writableRow(i, size + 1);
+            System.arraycopy(rowColumns[i], insert, rowColumns[i], insert + 1, size - insert);
+            System.arraycopy(rowValues[i], insert, rowValues[i], insert + 1, size - insert);
+            rowColumns[i][insert] = j;
+            rowValues[i][insert] = value;
+            rowSize[i]++;
+            nonZeros++;
+        }
+    } // end set()
+
+    @Override
+    public int[] row(int i) {
+        int[] row = new int[columns];
+        for (int k = 0; k < rowSize[i]; k++) {
+            row[rowColumns[i][k]] = rowValues[i][k];
+        }
+        return row;
+    } // end row()
+
+    @Override
+    public void setRow(int i, int[] values) {
+        if (values.length != columns) {
+            throw new IllegalArgumentException("行长度应为 " + columns + "，实际为 " + values.length);
+        }
+        int count = 0;
+        for (int value : values) {
+            if (value != 0) {
+                count++;
+            }
+        }
+        int[] newColumns = new int[count], newValues = new int[count];
+        count = 0;
+        for (int j = 0; j < columns; j++) {
+            if (values[j] != 0) {
+                newColumns[count] = j;
+                newValues[count++] = values[j];
+            }
+        }
+        replaceRow(i, newColumns, newValues, count);
+    } // end setRow()
+
+    @Override
+    public void fillRow(int i, int value) {
+        if (value == 0) {
+            replaceRow(i, EMPTY, EMPTY, 0);
+        } else {
+            int[] values = new int[columns];
+            Arrays.fill(values, value);
+            setRow(i, values);
+        }
+    } // end fillRow()
+
+    @Override
+    public int addRow() {
+        if (rows == rowSize.length) {
+            int capacity = Math.max(4, rows * 2);
+            rowColumns = Arrays.copyOf(rowColumns, capacity);
+            rowValues = Arrays.copyOf(rowValues, capacity);
+            rowSize = Arrays.copyOf(rowSize, capacity);
+            owned = Arrays.copyOf(owned, capacity);
+        }
+        rowColumns[rows] = EMPTY;
+        rowValues[rows] = EMPTY;
+        rowSize[rows] = 0;
+        owned[rows] = false;
+        return rows++;
+    } // end addRow()
+
+    /**
+     * 第 i 行加上 sign × delta：与该行的非零元素按列归并，结果为0的元素被删除
+     */
+    @Override
+    public void addToRow(int i, int[] delta, int sign) {
+        int size = rowSize[i], added = 0;
+        int[] oldColumns = rowColumns[i], oldValues = rowValues[i];
+        for (int j = 0; j < columns; j++) {
+            if (delta[j] != 0) {
+                added++;
+            }
+        }
+        if (added == 0) {
+            return;
+        }
+
+        int[] newColumns = new int[size + added], newValues = new int[size + added];
+        int count = 0, k = 0;
+        for (int j = 0; j < columns; j++) {
+            while (k < size && oldColumns[k] < j) {
+                newColumns[count] = oldColumns[k];
+                newValues[count++] = oldValues[k++];
+            }
+            int value = (k < size && oldColumns[k] == j ? oldValues[k++] : 0) + sign * delta[j];
+            if (value != 0) {
+                newColumns[count] = j;
+                newValues[count++] = value;
+            }
+        }
+        replaceRow(i, newColumns, newValues, count);
+    } // end addToRow()
+
+    @Override
+    public boolean rowLessOrEqual(int i, int[] limit) {
+        int[] columnIndex = rowColumns[i], values = rowValues[i];
+        for (int k = 0, size = rowSize[i]; k < size; k++) {
+            if (values[k] > limit[columnIndex[k]]) {
+                return false;
+            }
+        }
+        return true;
+    } // end rowLessOrEqual()
+
+    @Override
+    public void addRowTo(int i, int[] target) {
+        int[] columnIndex = rowColumns[i], values = rowValues[i];
+        for (int k = 0, size = rowSize[i]; k < size; k++) {
+            target[columnIndex[k]] += values[k];
+        }
+    } // end addRowTo()
+
+    @Override
+    public int rowNonZeros(int i, int[] columnsOut, int[] valuesOut) {
+        int size = rowSize[i];
+        System.arraycopy(rowColumns[i], 0, columnsOut, 0, size);
+        System.arraycopy(rowValues[i], 0, valuesOut, 0, size);
+        return size;
+    } // end rowNonZeros()
+
+    /**
+     * 使第 i 行数组为本矩阵独占且容量不小于 capacity（共享或容量不足时复制）
+     */
+    private void writableRow(int i, int capacity) {
+        if (owned[i] && rowColumns[i].length >= capacity) {
+            return;
+        }
+        int length = Math.max(capacity, owned[i] ? rowColumns[i].length * 2 : rowSize[i]);
+        rowColumns[i] = Arrays.copyOf(rowColumns[i], length);
+        rowValues[i] = Arrays.copyOf(rowValues[i], length);
+        owned[i] = true;
+    } // end writableRow()
+
+    /**
+     * 以新数组替换第 i 行（新数组由本矩阵独占，EMPTY 除外）
+     */
+    private void replaceRow(int i, int[] newColumns, int[] newValues, int size) {
+        nonZeros += size - rowSize[i];
+        rowColumns[i] = newColumns;
+        rowValues[i] = newValues;
+        rowSize[i] = size;
+        owned[i] = newColumns != EMPTY;
+    } // end replaceRow()
+} // end class SparseResourceMatrix
@@ -0,0 +1,68 @@
+/**
+ * 银行家算法向量运算内核类（标量实现）
+ * <p>
+ * 启动时选择实现：若类路径中有可选源码目录 src-simd 编译得到的 SimdVectorKernels，
+ * 且运行时加载了 jdk.incubator.vector 模块（--add-modules jdk.incubator.vector），则使用基于 Java Vector API 的实现，
+ * 否则使用本类的标量实现。本类不引用 Vector API，src 目录不需要任何额外参数即可编译。
+ * 可通过 -Dbanker.kernels=scalar 强制使用标量实现。
+ *
+ * @author agent
+ * @date 2026-10-19 08:26:55
+ */
+public class VectorKernels {
+    static final VectorKernels SCALAR = new VectorKernels(); // 标量实现
+    static final VectorKernels INSTANCE = select(); // 启动时选定的实现
+
+    /**
+     * 选择向量运算内核实现
+     *
+     * @return 向量运算内核
+     */
+    private static VectorKernels select() {
+        if ("scalar".equalsIgnoreCase(System.getProperty("banker.kernels"))) {
+            return SCALAR;
+        }
+        try {
+            return (VectorKernels) Class.forName("SimdVectorKernels").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR; // 未编译 SIMD 实现或未加载 Vector API 模块时退化为标量实现
+        }
+    } // end select()
+
+    /**
+     * 判断 a[aOffset..aOffset+length) 是否逐元素不大于 b[0..length)
+     */
+    boolean lessOrEqual(int[] a, int aOffset, int[] b, int length) {
+        for (int j = 0; j < length; j++) {
+            if (a[aOffset + j] > b[j]) {
+                return false;
+            }
+        }
+        return true;
+    } // end lessOrEqual()
+
+    /**
+     * target[0..length) += source[sourceOffset..sourceOffset+length)
+     */
+    void addInto(int[] target, int[] source, int sourceOffset, int length) {
+        for (int j = 0; j < length; j++) {
+            target[j] += source[sourceOffset + j];
+        }
+    } // end addInto()
+
+    /**
+     * target[targetOffset..targetOffset+length) += sign × delta[0..length)（sign 为 1 或 -1）
+     */
+    void addScaled(int[] target, int targetOffset, int[] delta, int sign, int length) {
+        for (int j = 0; j < length; j++) {
+            target[targetOffset + j] += sign * delta[j];
+        }
+    } // end addScaled()
+
+    /**
+     * 实现名称
+     */
+    String name() {
+        return "scalar";
+    } // end name()
+} // end class VectorKernels
@@ -0,0 +1,230 @@
+import java.util.*;
+
+/**
+ * 等待图类（单实例资源的死锁检测）
+ * <p>
+ * 边 u → v 表示进程 u 正在等待进程 v 占用的资源。图中始终维护一个拓扑序（Pearce–Kelly 动态拓扑排序）：
+ * 加入的边若与拓扑序一致则 O(1) 完成；否则只在两端点之间受影响的区域内搜索并重排，
+ * 不需要每次对整个图做一次环检测。会形成环的边不加入图中，而是返回该等待环。
+ *
+ * @author agent
+ * @date 2026-10-19 08:28:58
+ */
+public class WaitForGraph {
+    private final List<Set<Integer>> successors = new ArrayList<>(); // 各结点的出边
+    private final List<Set<Integer>> predecessors = new ArrayList<>(); // 各结点的入边
+    private int[] order = new int[0]; // 结点在拓扑序中的位置
+    private int[] visitMark = new int[0]; // 搜索时的访问标记
+    private int visitStamp; // 当前搜索的标记值
+    private int nodeCount; // 结点数
+
+    public WaitForGraph(int nodeCount) {
+        for (int i = 0; i < nodeCount; i++) {
+            appendNode();
+        }
+    } // end WaitForGraph()
+
+    /**
+     * 添加一个结点（排在拓扑序末尾）
+     *
+     * @return 新结点下标
+     */
+    public int addNode() {
+        return appendNode();
+    } // end addNode()
+
+    /**
+     * 添加一个结点（构造方法不调用可被重写的 addNode）
+     */
+    private int appendNode() {
+        if (nodeCount == order.length) {
+            int capacity = Math.max(4, nodeCount * 2);
+            order = Arrays.copyOf(order, capacity);
+            visitMark = Arrays.copyOf(visitMark, capacity);
+        }
+        successors.add(new LinkedHashSet<>());
+        predecessors.add(new LinkedHashSet<>());
+        order[nodeCount] = nodeCount;
+        return nodeCount++;
+    } // end appendNode()
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * 加入等待边 from → to
+     *
+     * @param from 等待的进程
+     * @param to   占用资源的进程
+     * @return 该边会形成的等待环（从 from 开始，依次为等待关系上的进程），不成环时返回 null 并加入该边
+     */
+    public List<Integer> addEdge(int from, int to) {
+        checkNode(from);
+        checkNode(to);
+        if (from == to) {
+            return Collections.singletonList(from);
+        }
+        if (successors.get(from).contains(to)) {
+            return null;
+        }
+
+        int lower = order[to], upper = order[from];
+        if (lower < upper) { // 与当前拓扑序矛盾，需要在 [lower, upper] 区间内重排
+            List<Integer> forward = new ArrayList<>();
+            Map<Integer, Integer> parents = new HashMap<>();
+            if (searchForward(to, upper, from, forward, parents)) {
+                return cycleOf(from, to, parents);
+            }
+            List<Integer> backward = new ArrayList<>();
+            searchBackward(from, lower, backward);
+            reorder(backward, forward);
+        }
+
+        successors.get(from).add(to);
+        predecessors.get(to).add(from);
+        return null;
+    } // end addEdge()
+
+    /**
+     * 删除等待边 from → to（删除边不会破坏拓扑序）
+     *
+     * @return 该边是否存在
+     */
+    public boolean removeEdge(int from, int to) {
+        checkNode(from);
+        checkNode(to);
+        if (!successors.get(from).remove(to)) {
+            return false;
+        }
+        predecessors.get(to).remove(from);
+        return true;
+    } // end removeEdge()
+
+    /**
+     * 删除结点的全部出边（进程获得资源、不再等待）
+     */
+    public void removeOutgoingEdges(int node) {
+        checkNode(node);
+        for (int to : successors.get(node)) {
+            predecessors.get(to).remove(node);
+        }
+        successors.get(node).clear();
+    } // end removeOutgoingEdges()
+
+    /**
+     * 删除结点的全部入边（进程释放了所有资源）
+     */
+    public void removeIncomingEdges(int node) {
+        checkNode(node);
+        for (int from : predecessors.get(node)) {
+            successors.get(from).remove(node);
+        }
+        predecessors.get(node).clear();
+    } // end removeIncomingEdges()
+
+    public boolean hasEdge(int from, int to) {
+        checkNode(from);
+        checkNode(to);
+        return successors.get(from).contains(to);
+    }
+
+    /**
+     * 从 start 沿出边搜索拓扑序位置不超过 upper 的结点
+     *
+     * @param start   起点
+     * @param upper   位置上界
+     * @param target  目标结点（搜索到即成环）
+     * @param visited 访问到的结点
+     * @param parents 搜索树中各结点的父结点
+     * @return 是否搜索到目标结点
+     */
+    private boolean searchForward(int start, int upper, int target, List<Integer> visited, Map<Integer, Integer> parents) {
+        int stamp = ++visitStamp;
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(start);
+        visitMark[start] = stamp;
+        while (!stack.isEmpty()) {
+            int node = stack.pop();
+            visited.add(node);
+            for (int next : successors.get(node)) {
+                if (next == target) {
+                    parents.put(next, node);
+                    return true;
+                }
+                if (visitMark[next] != stamp && order[next] < upper) {
+                    visitMark[next] = stamp;
+                    parents.put(next, node);
+                    stack.push(next);
+                }
+            }
+        }
+        return false;
+    } // end searchForward()
+
+    /**
+     * 从 start 沿入边搜索拓扑序位置不小于 lower 的结点
+     */
+    private void searchBackward(int start, int lower, List<Integer> visited) {
+        int stamp = ++visitStamp;
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(start);
+        visitMark[start] = stamp;
+        while (!stack.isEmpty()) {
+            int node = stack.pop();
+            visited.add(node);
+            for (int previous : predecessors.get(node)) {
+                if (visitMark[previous] != stamp && order[previous] > lower) {
+                    visitMark[previous] = stamp;
+                    stack.push(previous);
+                }
+            }
+        }
+    } // end searchBackward()
+
+    /**
+     * 重排受影响的结点：沿用它们原来占据的位置，后向搜索到的结点整体排在前向搜索到的结点之前
+     */
+    private void reorder(List<Integer> backward, List<Integer> forward) {
+        Comparator<Integer> byOrder = Comparator.comparingInt(node -> order[node]);
+        backward.sort(byOrder);
+        forward.sort(byOrder);
+
+        int[] positions = new int[backward.size() + forward.size()];
+        int k = 0;
+        for (int node : backward) {
+            positions[k++] = order[node];
+        }
+        for (int node : forward) {
+            positions[k++] = order[node];
+        }
+        Arrays.sort(positions);
+
+        k = 0;
+        for (int node : backward) {
+            order[node] = positions[k++];
+        }
+        for (int node : forward) {
+            order[node] = positions[k++];
+        }
+    } // end reorder()
+
+    /**
+     * 由前向搜索树还原等待环 from → to → ... → from
+     */
+    private static List<Integer> cycleOf(int from, int to, Map<Integer, Integer> parents) {
+        LinkedList<Integer> path = new LinkedList<>();
+        for (int node = parents.get(from); node != to; node = parents.get(node)) {
+            path.addFirst(node);
+        }
+        path.addFirst(to);
+        path.addFirst(from);
+        return new ArrayList<>(path);
+    } // end cycleOf()
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= nodeCount) {
+            throw new IllegalArgumentException("结点下标超出范围：" + node);
+        }
+    } // end checkNode()
+} // end class WaitForGraph
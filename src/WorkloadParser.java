@@ -0,0 +1,69 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * 解析进程负载文件类
+ * <p>
+ * 文件每行描述一个进程：进程名,优先数,到达时间,需要运行时间；空行和以 # 开头的行被忽略。
+ *
+ * @author agent
+ * @date 2026-10-19 08:15:45
+ */
+public class WorkloadParser {
+    /**
+     * 解析进程负载文件
+     *
+     * @param path 文件路径
+     * @return 进程列表
+     * @throws Exception 异常
+     */
+    public static List<PCB> parseWorkloadFile(Path path) throws Exception {
+        try {
+            return parseWorkload(Files.readAllLines(path, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new Exception("读取错误：无法读取负载文件 " + path, e);
+        }
+    } // end parseWorkloadFile()
+
+    /**
+     * 解析进程负载文本行
+     *
+     * @param lines 文本行
+     * @return 进程列表
+     * @throws Exception 异常
+     */
+    public static List<PCB> parseWorkload(List<String> lines) throws Exception {
+        List<PCB> processes = new ArrayList<>();
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] fields = line.split(",");
+            if (fields.length != 4) {
+                throw new Exception("解析错误：第 " + (i + 1) + " 行应为“进程名,优先数,到达时间,需要运行时间”");
+            }
+            try {
+                int priority = Integer.parseInt(fields[1].trim());
+                int arrivalTime = Integer.parseInt(fields[2].trim());
+                int requiredRuntime = Integer.parseInt(fields[3].trim());
+                if (arrivalTime < 0 || requiredRuntime < 0) {
+                    throw new Exception("解析错误：第 " + (i + 1) + " 行的到达时间和需要运行时间必须>=0");
+                }
+                processes.add(new PCB(fields[0].trim(), priority, arrivalTime, requiredRuntime));
+            } catch (NumberFormatException e) {
+                throw new Exception("解析错误：第 " + (i + 1) + " 行包含非整数", e);
+            }
+        }
+
+        if (processes.isEmpty()) {
+            throw new Exception("解析错误：负载中没有任何进程");
+        }
+
+        return processes;
+    } // end parseWorkload()
+} // end class WorkloadParser